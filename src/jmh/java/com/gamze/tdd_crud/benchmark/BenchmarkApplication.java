@@ -0,0 +1,27 @@
+package com.gamze.tdd_crud.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.gamze.tdd_crud.TddCrudApplication;
+
+/**
+ * Boots the application for a benchmark trial with logging and SQL output turned down
+ * so they do not dominate the measurements.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {}
+
+    static ConfigurableApplicationContext start(WebApplicationType webApplicationType) {
+        return new SpringApplicationBuilder(TddCrudApplication.class)
+                .web(webApplicationType)
+                .properties(
+                        "server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+    }
+}
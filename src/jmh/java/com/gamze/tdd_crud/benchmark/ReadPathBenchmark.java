@@ -0,0 +1,116 @@
+package com.gamze.tdd_crud.benchmark;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.gamze.tdd_crud.dto.TaskFilter;
+import com.gamze.tdd_crud.dto.TaskResponse;
+import com.gamze.tdd_crud.entity.Task;
+import com.gamze.tdd_crud.repository.TaskRepository;
+import com.gamze.tdd_crud.service.TaskService;
+
+import jakarta.persistence.EntityManager;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Uncached reads, database rows to JSON bytes, before and after the switch to projections.
+ * The {@code entity} benchmarks are the old path: a read-write transaction that loads managed
+ * {@code Task}s, each with a dirty-checking snapshot, and serialises them reflectively. The
+ * {@code projection} benchmarks are the current one: a read-only transaction selecting into
+ * {@code TaskResponse}, written by the application's Blackbird-enabled mapper.
+ * Compare {@code gc.alloc.rate.norm} for the bytes allocated per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadPathBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    private ConfigurableApplicationContext context;
+    private TaskRepository taskRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private JsonMapper reflectiveMapper;
+    private JsonMapper jsonMapper;
+    private ObjectWriter responseWriter;
+    private Long existingId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.NONE);
+        taskRepository = context.getBean(TaskRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        reflectiveMapper = JsonMapper.builder().build();
+        jsonMapper = context.getBean(JsonMapper.class);
+        responseWriter = jsonMapper.writerFor(TaskResponse.class);
+
+        TaskService taskService = context.getBean(TaskService.class);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Task task = new Task();
+            task.setTitle("Read me " + i);
+            task.setDescription("A task with a description of moderate length to make the payload realistic");
+            task.setDueDate(LocalDate.of(2024, 12, 20));
+            existingId = taskService.createTask(task).id();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] entity() {
+        Task task = readWrite.execute(status -> taskRepository.findById(existingId).orElseThrow());
+        return reflectiveMapper.writeValueAsBytes(task);
+    }
+
+    @Benchmark
+    public byte[] projection() {
+        TaskResponse task = readOnly.execute(status -> taskRepository.findResponseById(existingId).orElseThrow());
+        return responseWriter.writeValueAsBytes(task);
+    }
+
+    @Benchmark
+    public byte[] entityPage() {
+        List<Task> tasks = readWrite.execute(status -> entityManager
+                .createQuery("SELECT t FROM Task t ORDER BY t.createdAt, t.id", Task.class)
+                .setMaxResults(PAGE_SIZE)
+                .getResultList());
+        return reflectiveMapper.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public byte[] projectionPage() {
+        List<TaskResponse> tasks = readOnly.execute(status ->
+                taskRepository.findPage(TaskFilter.none(), null, PAGE_SIZE));
+        return jsonMapper.writeValueAsBytes(tasks);
+    }
+}
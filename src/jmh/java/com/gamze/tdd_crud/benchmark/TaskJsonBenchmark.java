@@ -0,0 +1,60 @@
+package com.gamze.tdd_crud.benchmark;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gamze.tdd_crud.entity.Task;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Jackson serialisation and deserialisation of a single task.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskJsonBenchmark {
+    private JsonMapper jsonMapper;
+    private Task task;
+    private byte[] json;
+
+    @Setup
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+        task = new Task();
+        task.setId(42L);
+        task.setTitle("Serialise me");
+        task.setDescription("A task with a description of moderate length to make the payload realistic");
+        task.setDueDate(LocalDate.of(2024, 12, 20));
+        json = jsonMapper.writeValueAsBytes(task);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return jsonMapper.writeValueAsBytes(task);
+    }
+
+    @Benchmark
+    public Task deserialize() {
+        return jsonMapper.readValue(json, Task.class);
+    }
+
+    @Benchmark
+    public Task roundTrip() {
+        return jsonMapper.readValue(jsonMapper.writeValueAsBytes(task), Task.class);
+    }
+}
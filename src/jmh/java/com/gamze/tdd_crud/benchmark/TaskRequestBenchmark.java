@@ -0,0 +1,83 @@
+package com.gamze.tdd_crud.benchmark;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.gamze.tdd_crud.entity.Task;
+import com.gamze.tdd_crud.service.TaskService;
+
+/**
+ * Full DispatcherServlet request handling through MockMvc, without the network stack.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskRequestBenchmark {
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private String taskPath;
+    private long missingId = 1_000_000_000L;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.SERVLET);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+        Task task = new Task();
+        task.setTitle("Requested task");
+        taskPath = "/api/tasks/" + context.getBean(TaskService.class).createTask(task).id();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult getTask() throws Exception {
+        return mockMvc.perform(get(taskPath)).andReturn();
+    }
+
+    /**
+     * A scanner probing ids that do not exist: every request misses the cache, queries the
+     * database and is answered with a 404 problem response.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public MvcResult getMissingTask() throws Exception {
+        return mockMvc.perform(get("/api/tasks/" + missingId++)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult createTask() throws Exception {
+        return mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Benchmark task\",\"dueDate\":\"2024-12-20\"}"))
+                .andReturn();
+    }
+}
@@ -0,0 +1,75 @@
+package com.gamze.tdd_crud.benchmark;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.gamze.tdd_crud.dto.TaskResponse;
+import com.gamze.tdd_crud.entity.Task;
+import com.gamze.tdd_crud.service.TaskService;
+
+/**
+ * TaskService hot paths against the in-memory H2 database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskServiceBenchmark {
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private Long existingId;
+    private Task update;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.NONE);
+        taskService = context.getBean(TaskService.class);
+        existingId = taskService.createTask(newTask("Existing task")).id();
+        update = newTask("Updated task");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TaskResponse createTask() {
+        return taskService.createTask(newTask("Benchmark task"));
+    }
+
+    @Benchmark
+    public TaskResponse getTaskById() {
+        return taskService.getTaskById(existingId);
+    }
+
+    @Benchmark
+    public TaskResponse updateTask() {
+        return taskService.updateTask(existingId, update, null);
+    }
+
+    private static Task newTask(String title) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setDescription("Created by TaskServiceBenchmark");
+        task.setDueDate(LocalDate.of(2024, 12, 20));
+        return task;
+    }
+}
@@ -0,0 +1,19 @@
+package com.gamze.tdd_crud.budget;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The most SQL statements a request to the annotated endpoint may issue, whatever the size
+ * of its input. An endpoint that loads rows one by one (N+1) blows through it at once.
+ * Checked by {@link StatementBudgetFilter}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StatementBudget {
+    int value();
+}
@@ -0,0 +1,79 @@
+package com.gamze.tdd_crud.budget;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Opt-in ({@code tasks.statement-budget.enabled}) check of each request's SQL statements
+ * against the {@link StatementBudget} of the endpoint that handled it. Statements are
+ * counted on the request thread only, so work handed to other threads is not included.
+ * Requests over budget are logged and counted as {@code tasks.statement.budget.exceeded}.
+ * With {@code tasks.statement-budget.fail} they also throw once the response has been
+ * written. That fails the calling MockMvc test, and is meant for the test profile only.
+ */
+@Component
+public class StatementBudgetFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(StatementBudgetFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final boolean fail;
+
+    public StatementBudgetFilter(MeterRegistry meterRegistry,
+            @Value("${tasks.statement-budget.enabled:false}") boolean enabled,
+            @Value("${tasks.statement-budget.fail:false}") boolean fail) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.fail = fail;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        int statements;
+        StatementCounter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            statements = StatementCounter.stop();
+        }
+
+        if (!(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler)) {
+            return;
+        }
+        StatementBudget budget = handler.getMethodAnnotation(StatementBudget.class);
+        if (budget == null || statements <= budget.value()) {
+            return;
+        }
+        String endpoint = request.getMethod() + " " + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Counter.builder("tasks.statement.budget.exceeded")
+                .description("Requests that issued more SQL statements than their endpoint's budget")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .increment();
+        String message = endpoint + " issued " + statements + " SQL statements, its budget is " + budget.value();
+        if (fail) {
+            throw new IllegalStateException(message);
+        }
+        log.warn(message);
+    }
+}
@@ -0,0 +1,35 @@
+package com.gamze.tdd_crud.budget;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate statement inspector (see {@code application.properties}) that counts the
+ * statements Hibernate prepares on a thread between {@link #start()} and {@link #stop()}.
+ * Each JDBC batch counts once. It returns every statement unchanged, and costs a thread-local
+ * lookup on threads that are not counting.
+ */
+public class StatementCounter implements StatementInspector {
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    /**
+     * Stops counting on this thread and returns the number of statements since {@link #start()}.
+     */
+    public static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+}
@@ -0,0 +1,168 @@
+package com.gamze.tdd_crud.cluster;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import com.gamze.tdd_crud.event.TaskChangedEvent;
+import com.gamze.tdd_crud.search.TaskSearchIndex;
+import com.gamze.tdd_crud.service.TaskService;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Shares committed task changes between the nodes of the {@code cluster} profile. After a
+ * write, the node sends the {@link TaskChangedEvent}, with the task's state before and after
+ * it, as one JSON datagram to every peer in {@code tasks.cluster.cache-bus.peers}. Each peer
+ * evicts the task from its cache and publishes the event locally, so its search index, stats
+ * counters and change feed apply the write as if it had been made there. The bus listens on
+ * {@code tasks.cluster.cache-bus.address} only and drops datagrams that do not come from a
+ * listed peer's bus port, so other hosts cannot inject changes.
+ *
+ * <p>A lost datagram leaves a stale cache entry until the cache expires it and stats drift
+ * until their next reconciliation. The search index is rebuilt from the database every
+ * {@code tasks.cluster.search-rebuild-interval} to recover from the same loss; the change
+ * feed has no such correction, so its streams can miss a change.
+ */
+@Component
+@Profile("cluster")
+public class TaskChangeBus implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(TaskChangeBus.class);
+    private static final int MAX_DATAGRAM = 65_507;
+
+    private final Cache cache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskSearchIndex searchIndex;
+    private final JsonMapper jsonMapper;
+    private final InetSocketAddress address;
+    private final List<InetSocketAddress> peers = new ArrayList<>();
+    private volatile DatagramChannel channel;
+    private Thread receiver;
+
+    public TaskChangeBus(CacheManager cacheManager, ApplicationEventPublisher eventPublisher,
+            TaskSearchIndex searchIndex, JsonMapper jsonMapper,
+            @Value("${tasks.cluster.cache-bus.address:127.0.0.1}") String address,
+            @Value("${tasks.cluster.cache-bus.port:9101}") int port,
+            @Value("${tasks.cluster.cache-bus.peers:}") String peers) {
+        this.cache = cacheManager.getCache(TaskService.TASKS_CACHE);
+        this.eventPublisher = eventPublisher;
+        this.searchIndex = searchIndex;
+        this.jsonMapper = jsonMapper;
+        this.address = new InetSocketAddress(address, port);
+        for (String peer : StringUtils.commaDelimitedListToStringArray(peers)) {
+            String hostAndPort = peer.trim();
+            int colon = hostAndPort.lastIndexOf(':');
+            if (colon < 1) {
+                throw new IllegalArgumentException("Cache bus peer must be host:port, got '" + hostAndPort + "'");
+            }
+            InetSocketAddress resolved = new InetSocketAddress(hostAndPort.substring(0, colon),
+                    Integer.parseInt(hostAndPort.substring(colon + 1)));
+            if (resolved.isUnresolved()) {
+                throw new IllegalArgumentException("Cache bus peer '" + hostAndPort + "' does not resolve");
+            }
+            this.peers.add(resolved);
+        }
+    }
+
+    @Override
+    public void start() {
+        DatagramChannel open;
+        try {
+            open = DatagramChannel.open().bind(address);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not open cache bus on " + address, ex);
+        }
+        channel = open;
+        receiver = new Thread(() -> receive(open), "cache-bus");
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+
+    @Override
+    public void stop() {
+        DatagramChannel open = channel;
+        channel = null;
+        try {
+            open.close();
+            receiver.join();
+        } catch (IOException ex) {
+            log.warn("Could not close cache bus", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return channel != null;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        DatagramChannel open = channel;
+        // Events the receiver publishes are delivered on its own thread; they came from a peer.
+        if (open == null || Thread.currentThread() == receiver) {
+            return;
+        }
+        ByteBuffer message = ByteBuffer.wrap(jsonMapper.writeValueAsBytes(event));
+        for (InetSocketAddress peer : peers) {
+            try {
+                open.send(message.rewind(), peer);
+            } catch (IOException ex) {
+                log.warn("Could not send change of task {} to {}", event.id(), peer, ex);
+            }
+        }
+    }
+
+    /**
+     * Reloads the search index, which otherwise never recovers a change whose datagram was lost.
+     */
+    @Scheduled(fixedDelayString = "${tasks.cluster.search-rebuild-interval:10m}",
+            initialDelayString = "${tasks.cluster.search-rebuild-interval:10m}")
+    public void rebuildSearchIndex() {
+        searchIndex.rebuild();
+    }
+
+    private void receive(DatagramChannel channel) {
+        ByteBuffer message = ByteBuffer.allocate(MAX_DATAGRAM);
+        while (true) {
+            try {
+                message.clear();
+                SocketAddress source = channel.receive(message);
+                // Peers send from their bound bus socket, so the source is exactly a listed peer.
+                if (!peers.contains(source)) {
+                    log.debug("Dropped a cache bus datagram from {}, which is not a peer", source);
+                    continue;
+                }
+                TaskChangedEvent event = jsonMapper.readValue(message.array(), 0, message.position(),
+                        TaskChangedEvent.class);
+                cache.evict(event.id());
+                eventPublisher.publishEvent(event);
+            } catch (ClosedChannelException ex) {
+                return;
+            } catch (IOException ex) {
+                log.warn("Cache bus receive failed", ex);
+            } catch (RuntimeException ex) {
+                log.warn("Could not apply a change from a peer", ex);
+            }
+        }
+    }
+}
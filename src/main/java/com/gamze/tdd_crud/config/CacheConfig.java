@@ -0,0 +1,13 @@
+package com.gamze.tdd_crud.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Caching advice runs outside the transaction advice, so cache hits never open a
+ * transaction and {@code @CacheEvict} only fires once the write has committed.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {}
@@ -0,0 +1,19 @@
+package com.gamze.tdd_crud.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import tools.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * Blackbird replaces Jackson's reflective getter and constructor calls with generated
+ * lambdas. Spring Boot registers every module bean with the application's {@code JsonMapper}.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -0,0 +1,11 @@
+package com.gamze.tdd_crud.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Background jobs such as the periodic task statistics reconciliation.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {}
@@ -0,0 +1,42 @@
+package com.gamze.tdd_crud.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Settings for the {@code virtual} profile. Requests run on virtual threads (see
+ * {@code application-virtual.properties}), so thousands of them can be parked at once;
+ * the bulkhead keeps them from all queueing on the connection pool at the same time.
+ * Each pool gets its own bulkhead. Data sources that only delegate to others, such as the
+ * {@code cluster} profile's routing proxy, are left alone, so a connection passes through
+ * exactly one bulkhead.
+ */
+@Configuration
+@Profile("virtual")
+public class VirtualThreadConfig {
+
+    @Bean
+    static BeanPostProcessor bulkheadDataSourcePostProcessor(
+            @Value("${tasks.bulkhead.max-concurrent:10}") int maxConcurrent,
+            @Value("${tasks.bulkhead.acquire-timeout:2s}") Duration acquireTimeout) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof DelegatingDataSource)
+                        && !(bean instanceof AbstractRoutingDataSource)) {
+                    return new BulkheadDataSource(dataSource, maxConcurrent, acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,44 @@
+package com.gamze.tdd_crud.controller;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import com.gamze.tdd_crud.dto.TaskResponse;
+
+import tools.jackson.databind.ObjectWriter;
+
+/**
+ * JSON bodies of recently read tasks, serialised once per task version. Later reads of that
+ * version write the stored bytes without going through Jackson. An entry is only reused for a
+ * task equal to the one it was built from, so a stale version is never served and writes need
+ * not evict anything.
+ */
+class TaskBodyCache {
+    private final ObjectWriter writer;
+    private final Cache<Long, TaskBody> bodies;
+
+    /**
+     * @param maximumBytes total size of the cached bodies; 0 serialises every read
+     */
+    TaskBodyCache(ObjectWriter writer, long maximumBytes) {
+        this.writer = writer;
+        this.bodies = maximumBytes == 0 ? null : Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .<Long, TaskBody>weigher((id, body) -> body.json().length)
+                .build();
+    }
+
+    byte[] get(TaskResponse task) {
+        TaskBody body = bodies == null ? null : bodies.getIfPresent(task.id());
+        if (body == null || !body.task().equals(task)) {
+            body = new TaskBody(task, writer.writeValueAsBytes(task));
+            if (bodies != null) {
+                bodies.put(task.id(), body);
+            }
+        }
+        return body.json();
+    }
+
+    private record TaskBody(TaskResponse task, byte[] json) {
+    }
+}
@@ -1,47 +1,255 @@
 package com.gamze.tdd_crud.controller;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.gamze.tdd_crud.budget.StatementBudget;
+import com.gamze.tdd_crud.dto.BatchItemResult;
+import com.gamze.tdd_crud.dto.ImportSummary;
+import com.gamze.tdd_crud.dto.TaskFilter;
+import com.gamze.tdd_crud.dto.TaskPage;
+import com.gamze.tdd_crud.dto.TaskResponse;
+import com.gamze.tdd_crud.dto.TaskSearchPage;
+import com.gamze.tdd_crud.dto.TaskStats;
+import com.gamze.tdd_crud.entity.LenientLocalDateDeserializer;
 import com.gamze.tdd_crud.entity.Task;
+import com.gamze.tdd_crud.exception.TaskVersionMismatchException;
+import com.gamze.tdd_crud.feed.TaskChangeFeed;
+import com.gamze.tdd_crud.service.TaskImportService;
 import com.gamze.tdd_crud.service.TaskService;
 
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
 @RestController
 @RequestMapping("/api/tasks")
 public class TaskController {
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+    // A full batch is inserted through one JDBC batch statement and draws its ids from the
+    // current, possibly partly used, block of ids plus one new block per allocation size.
+    private static final int BATCH_CREATE_STATEMENTS = TaskService.MAX_BATCH_SIZE / Task.ID_ALLOCATION_SIZE + 2;
+
     private final TaskService taskService;
+    private final TaskImportService taskImportService;
+    private final TaskChangeFeed changeFeed;
+    // Resolved once so the export loop does not look up a serializer per row.
+    private final ObjectWriter taskWriter;
+    private final TaskBodyCache taskBodies;
+    private final CacheControl readCacheControl;
 
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, TaskImportService taskImportService, TaskChangeFeed changeFeed,
+            JsonMapper jsonMapper,
+            @Value("${tasks.http.body-cache-size:16MB}") DataSize bodyCacheSize,
+            @Value("${tasks.http.max-age:0s}") Duration maxAge) {
         this.taskService = taskService;
+        this.taskImportService = taskImportService;
+        this.changeFeed = changeFeed;
+        this.taskWriter = jsonMapper.writerFor(TaskResponse.class);
+        this.taskBodies = new TaskBodyCache(taskWriter, bodyCacheSize.toBytes());
+        this.readCacheControl = maxAge.isZero() ? CacheControl.noCache() : CacheControl.maxAge(maxAge).mustRevalidate();
     }
 
+    /**
+     * Answers 202 instead of 201 in write-behind mode, where the task is journaled but not yet
+     * stored; {@code GET /api/tasks/{id}} already returns it.
+     */
     @PostMapping
-    public ResponseEntity<Task> createTask(@RequestBody Task task) {
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(taskService.createTask(task));
+    @StatementBudget(2)
+    public ResponseEntity<TaskResponse> createTask(@RequestBody Task task) {
+        TaskResponse created = taskService.createTask(task);
+        return ResponseEntity.status(taskService.isWriteBehindEnabled() ? HttpStatus.ACCEPTED : HttpStatus.CREATED)
+                .body(created);
+    }
+
+    @GetMapping
+    @StatementBudget(1)
+    public ResponseEntity<TaskPage> listTasks(
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) String dueDate,
+            @RequestParam(required = false) String dueBefore,
+            @RequestParam(required = false) String dueAfter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        TaskFilter filter = new TaskFilter(completed, date(dueDate), date(dueBefore), date(dueAfter));
+        return ResponseEntity.ok().cacheControl(readCacheControl).body(taskService.listTasks(filter, cursor, limit));
+    }
+
+    @GetMapping("/overdue")
+    @StatementBudget(1)
+    public ResponseEntity<TaskPage> listOverdueTasks(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok().cacheControl(readCacheControl).body(taskService.listOverdueTasks(cursor, limit));
+    }
+
+    @GetMapping("/search")
+    @StatementBudget(1)
+    public ResponseEntity<TaskSearchPage> searchTasks(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok().cacheControl(readCacheControl).body(taskService.searchTasks(q, offset, limit));
+    }
+
+    @GetMapping("/stats")
+    @StatementBudget(0)
+    public ResponseEntity<TaskStats> getStats(@RequestParam(defaultValue = "30") int days) {
+        return ResponseEntity.ok().cacheControl(readCacheControl).body(taskService.getStats(days));
+    }
+
+    /**
+     * Server-Sent Events for every committed create, update and delete. Reconnecting clients
+     * send the last event id they saw, as browsers' {@code EventSource} does, or pass it as
+     * {@code since}.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(required = false) Long since) {
+        return changeFeed.subscribe(lastEventId != null ? lastEventId : since);
+    }
+
+    /**
+     * Streams all tasks as newline-delimited JSON. Rows are written to the response as
+     * they are read, so memory use does not depend on the size of the table.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks() {
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream, EXPORT_BUFFER_SIZE);
+            taskService.exportTasks(task -> writeLine(out, task));
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    public ResponseEntity<ImportSummary> importNdjson(InputStream body) throws IOException {
+        return ResponseEntity.ok(taskImportService.importNdjson(body));
     }
 
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ImportSummary> importCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(taskImportService.importCsv(body));
+    }
+
+    /**
+     * A matching {@code If-None-Match} header is answered with 304 before any body is built.
+     * Otherwise the body comes from {@link TaskBodyCache}, which serialises each task version
+     * only once.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<Task> getTaskById(@PathVariable Long id) {
-        return ResponseEntity.ok(taskService.getTaskById(id));
+    @StatementBudget(1)
+    public ResponseEntity<byte[]> getTaskById(@PathVariable Long id, WebRequest request) {
+        TaskResponse task = taskService.getTaskById(id);
+        String eTag = eTag(task);
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(readCacheControl).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(readCacheControl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(taskBodies.get(task));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Task> updateTask(@PathVariable Long id, @RequestBody Task task) {
-        return ResponseEntity.ok(taskService.updateTask(id, task));
+    @StatementBudget(2)
+    public ResponseEntity<byte[]> updateTask(@PathVariable Long id, @RequestBody Task task,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TaskResponse updatedTask = taskService.updateTask(id, task, expectedVersion(id, ifMatch));
+        return ResponseEntity.ok()
+                .eTag(eTag(updatedTask))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(taskBodies.get(updatedTask));
     }
 
     @DeleteMapping("/{id}")
+    @StatementBudget(2)
     public ResponseEntity<Void> deleteTask(@PathVariable Long id) {
         taskService.deleteTask(id);
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/batch")
+    @StatementBudget(BATCH_CREATE_STATEMENTS)
+    public ResponseEntity<List<BatchItemResult>> createTasks(@RequestBody List<Task> tasks) {
+        return ResponseEntity.ok(taskService.createTasks(tasks));
+    }
+
+    @PutMapping("/batch")
+    @StatementBudget(2)
+    public ResponseEntity<List<BatchItemResult>> updateTasks(@RequestBody List<Task> tasks) {
+        return ResponseEntity.ok(taskService.updateTasks(tasks));
+    }
+
+    @DeleteMapping("/batch")
+    @StatementBudget(2)
+    public ResponseEntity<List<BatchItemResult>> deleteTasks(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(taskService.deleteTasks(ids));
+    }
+
+    private void writeLine(OutputStream out, TaskResponse task) {
+        try {
+            out.write(taskWriter.writeValueAsBytes(task));
+            out.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static LocalDate date(String value) {
+        return LenientLocalDateDeserializer.parse(value);
+    }
+
+    private static String eTag(TaskResponse task) {
+        return "\"" + task.version() + "\"";
+    }
+
+    /**
+     * Parses a single strong entity tag from {@code If-Match}. Weak or malformed tags can
+     * never match, as required for {@code If-Match}, so they fail the precondition.
+     */
+    private static Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 2 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            throw new TaskVersionMismatchException(id);
+        }
+        try {
+            return Long.valueOf(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException ex) {
+            throw new TaskVersionMismatchException(id);
+        }
+    }
 }
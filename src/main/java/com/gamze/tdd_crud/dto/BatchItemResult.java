@@ -0,0 +1,28 @@
+package com.gamze.tdd_crud.dto;
+
+/**
+ * Outcome of a single element in a batch request. {@code index} is the element's
+ * position in the request body so clients can correlate failures.
+ */
+public record BatchItemResult(int index, Long id, Status status, String error) {
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        DELETED,
+        INVALID,
+        NOT_FOUND
+    }
+
+    public static BatchItemResult success(int index, Long id, Status status) {
+        return new BatchItemResult(index, id, status, null);
+    }
+
+    public static BatchItemResult invalid(int index, Long id, String error) {
+        return new BatchItemResult(index, id, Status.INVALID, error);
+    }
+
+    public static BatchItemResult notFound(int index, Long id) {
+        return new BatchItemResult(index, id, Status.NOT_FOUND, "Task not found with id: " + id);
+    }
+}
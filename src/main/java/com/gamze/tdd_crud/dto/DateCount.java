@@ -0,0 +1,5 @@
+package com.gamze.tdd_crud.dto;
+
+import java.time.LocalDate;
+
+public record DateCount(LocalDate date, long count) {}
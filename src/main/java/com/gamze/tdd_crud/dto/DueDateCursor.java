@@ -0,0 +1,33 @@
+package com.gamze.tdd_crud.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position for pages ordered by due date, encoded like {@link TaskCursor}.
+ */
+public record DueDateCursor(LocalDate dueDate, Long id) {
+    private static final char SEPARATOR = '|';
+
+    public static DueDateCursor of(TaskResponse task) {
+        return new DueDateCursor(task.dueDate(), task.id());
+    }
+
+    public static DueDateCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new DueDateCursor(LocalDate.parse(raw.substring(0, separator)),
+                    Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+
+    public String encode() {
+        String raw = dueDate.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,13 @@
+package com.gamze.tdd_crud.dto;
+
+import java.util.List;
+
+/**
+ * Result of a bulk import. {@code rejections} lists at most the first
+ * {@code TaskImportService.MAX_REPORTED_REJECTIONS} rejected lines; {@code rejected}
+ * is always the full count.
+ */
+public record ImportSummary(long imported, long rejected, List<RejectedLine> rejections) {
+
+    public record RejectedLine(long line, String error) {}
+}
@@ -0,0 +1,9 @@
+package com.gamze.tdd_crud.dto;
+
+import com.gamze.tdd_crud.event.TaskChangedEvent;
+
+/**
+ * One entry of the change feed. {@code task} is the state after the change and is
+ * {@code null} for deletions.
+ */
+public record TaskChange(long sequence, TaskChangedEvent.Type type, Long id, TaskResponse task) {}
@@ -0,0 +1,8 @@
+package com.gamze.tdd_crud.dto;
+
+import java.util.List;
+
+/**
+ * Totals the stats counters are reconciled against.
+ */
+public record TaskCounts(long total, long completed, List<DateCount> createdPerDay, List<DateCount> openPerDueDate) {}
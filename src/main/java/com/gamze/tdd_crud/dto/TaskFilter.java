@@ -0,0 +1,13 @@
+package com.gamze.tdd_crud.dto;
+
+import java.time.LocalDate;
+
+/**
+ * {@code dueBefore} and {@code dueAfter} are exclusive bounds.
+ */
+public record TaskFilter(Boolean completed, LocalDate dueDate, LocalDate dueBefore, LocalDate dueAfter) {
+
+    public static TaskFilter none() {
+        return new TaskFilter(null, null, null, null);
+    }
+}
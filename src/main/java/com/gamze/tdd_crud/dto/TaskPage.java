@@ -0,0 +1,5 @@
+package com.gamze.tdd_crud.dto;
+
+import java.util.List;
+
+public record TaskPage(List<TaskResponse> items, String nextCursor) {}
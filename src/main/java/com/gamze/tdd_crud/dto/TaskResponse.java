@@ -0,0 +1,19 @@
+package com.gamze.tdd_crud.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.gamze.tdd_crud.entity.Task;
+
+/**
+ * Read model returned by the API. Repository queries build it directly with a constructor
+ * expression, so reads never materialise managed {@link Task} entities.
+ */
+public record TaskResponse(Long id, String title, String description, LocalDate dueDate,
+        boolean completed, LocalDateTime createdAt, Long version) {
+
+    public static TaskResponse from(Task task) {
+        return new TaskResponse(task.getId(), task.getTitle(), task.getDescription(), task.getDueDate(),
+                task.isCompleted(), task.getCreatedAt(), task.getVersion());
+    }
+}
@@ -0,0 +1,10 @@
+package com.gamze.tdd_crud.dto;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Task totals. {@code createdPerDay} covers the requested number of days up to today,
+ * oldest first, including days on which nothing was created.
+ */
+public record TaskStats(long total, long completed, long open, long overdue, Map<LocalDate, Long> createdPerDay) {}
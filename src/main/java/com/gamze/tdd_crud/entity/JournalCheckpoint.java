@@ -0,0 +1,22 @@
+package com.gamze.tdd_crud.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * The sequence number of the last write-behind journal record stored in {@code tasks}. It is
+ * updated in the same transaction as the rows, so replay after a crash inserts each record once.
+ * Written with plain SQL by {@code TaskWriteBehind}; mapped so the generated schema includes it.
+ */
+@Entity
+@Table(name = "task_journal_checkpoint")
+public class JournalCheckpoint {
+    @Id
+    private Integer id;
+    private long lastSequence;
+
+    public Integer getId() { return id; }
+
+    public long getLastSequence() { return lastSequence; }
+}
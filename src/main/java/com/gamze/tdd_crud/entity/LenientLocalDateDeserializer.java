@@ -0,0 +1,58 @@
+package com.gamze.tdd_crud.entity;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.List;
+
+import tools.jackson.core.JsonParser;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.deser.std.StdScalarDeserializer;
+
+/**
+ * Reads due dates written before {@code dueDate} became a {@link LocalDate}. Besides ISO
+ * {@code yyyy-MM-dd} it accepts {@code yyyy/MM/dd}, {@code dd.MM.yyyy} and ISO date-times,
+ * whose time part is dropped. Blank strings mean no due date.
+ */
+public class LenientLocalDateDeserializer extends StdScalarDeserializer<LocalDate> {
+    private static final List<DateTimeFormatter> LEGACY_FORMATS = List.of(
+            DateTimeFormatter.ofPattern("uuuu/MM/dd").withResolverStyle(ResolverStyle.STRICT),
+            DateTimeFormatter.ofPattern("dd.MM.uuuu").withResolverStyle(ResolverStyle.STRICT));
+
+    public LenientLocalDateDeserializer() {
+        super(LocalDate.class);
+    }
+
+    @Override
+    public LocalDate deserialize(JsonParser parser, DeserializationContext context) {
+        String text = parser.getValueAsString();
+        try {
+            return parse(text);
+        } catch (IllegalArgumentException ex) {
+            return (LocalDate) context.handleWeirdStringValue(LocalDate.class, text, ex.getMessage());
+        }
+    }
+
+    public static LocalDate parse(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        String value = text.trim();
+        if (value.length() > 10 && value.charAt(10) == 'T') {
+            value = value.substring(0, 10);
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException ex) {
+            for (DateTimeFormatter format : LEGACY_FORMATS) {
+                try {
+                    return LocalDate.parse(value, format);
+                } catch (DateTimeParseException ignored) {
+                    // try the next format
+                }
+            }
+        }
+        throw new IllegalArgumentException("Invalid due date '" + text + "', expected yyyy-MM-dd");
+    }
+}
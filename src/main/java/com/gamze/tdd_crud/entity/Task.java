@@ -1,24 +1,61 @@
 package com.gamze.tdd_crud.entity;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.SQLRestriction;
+
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import tools.jackson.databind.annotation.JsonDeserialize;
 
+/**
+ * Soft-deleted tasks keep their row with {@code deletedAt} set until they are purged; the
+ * restriction hides them from every entity load and JPQL query. Indexes lead with
+ * {@code deletedAt}, so live rows form one contiguous range that tombstones never interleave
+ * with, which is as close to a partial index as H2 gets.
+ */
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_deleted_at_created_at_id", columnList = "deletedAt, createdAt, id"),
+        @Index(name = "idx_tasks_deleted_at_completed_created_at_id", columnList = "deletedAt, completed, createdAt, id"),
+        @Index(name = "idx_tasks_deleted_at_due_date_created_at_id", columnList = "deletedAt, dueDate, createdAt, id"),
+        @Index(name = "idx_tasks_deleted_at_completed_due_date_id", columnList = "deletedAt, completed, dueDate, id")
+})
+@SQLRestriction("deleted_at IS NULL")
 public class Task {
+    /** Ids each {@code tasks_seq} value reserves; the sequence increments by the same amount. */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // A pooled sequence lets Hibernate assign ids without a round-trip per insert,
+    // which IDENTITY cannot do, so inserts can be grouped into JDBC batches.
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     private String title;
     private String description;
-    private String dueDate;
+    @JsonDeserialize(using = LenientLocalDateDeserializer.class)
+    private LocalDate dueDate;
     private boolean completed;
     private LocalDateTime createdAt = LocalDateTime.now();
+    // Every task starts at version 0, which If-Match depends on, so clients cannot set it
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+    // Only deletes set it; a request body that could would create tasks as tombstones
+    @JsonIgnore
+    private LocalDateTime deletedAt;
 
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -29,11 +66,16 @@ public class Task {
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
 
-    public String getDueDate() { return dueDate; }
-    public void setDueDate(String dueDate) { this.dueDate = dueDate; }
+    public LocalDate getDueDate() { return dueDate; }
+    public void setDueDate(LocalDate dueDate) { this.dueDate = dueDate; }
 
     public boolean isCompleted() { return completed; }
     public void setCompleted(boolean completed) { this.completed = completed; }
 
     public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public Long getVersion() { return version; }
+
+    public LocalDateTime getDeletedAt() { return deletedAt; }
+    public void setDeletedAt(LocalDateTime deletedAt) { this.deletedAt = deletedAt; }
 }
@@ -0,0 +1,25 @@
+package com.gamze.tdd_crud.event;
+
+import com.gamze.tdd_crud.dto.TaskResponse;
+
+/**
+ * Published by the service layer for every task write. Listeners that keep derived state
+ * should use {@code @TransactionalEventListener} so they only see committed changes.
+ * {@code task} is the state after the write and is {@code null} for deletions;
+ * {@code previous} is the state before it and is {@code null} for creations.
+ */
+public record TaskChangedEvent(Type type, Long id, TaskResponse task, TaskResponse previous) {
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    public static TaskChangedEvent created(TaskResponse task) {
+        return new TaskChangedEvent(Type.CREATED, task.id(), task, null);
+    }
+
+    public static TaskChangedEvent updated(TaskResponse previous, TaskResponse task) {
+        return new TaskChangedEvent(Type.UPDATED, task.id(), task, previous);
+    }
+
+    public static TaskChangedEvent deleted(TaskResponse previous) {
+        return new TaskChangedEvent(Type.DELETED, previous.id(), null, previous);
+    }
+}
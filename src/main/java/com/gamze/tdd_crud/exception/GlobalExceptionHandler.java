@@ -1,22 +1,87 @@
 package com.gamze.tdd_crud.exception;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import tools.jackson.core.JacksonException;
+
+/**
+ * Errors are answered with RFC 7807 {@link ProblemDetail} bodies
+ * ({@code application/problem+json}). Spring MVC's own exceptions, such as an unknown path or
+ * an unsupported method, keep their standard status through {@link ResponseEntityExceptionHandler}.
+ * Anything not mapped here is a fault in the application: it is logged and answered with 500,
+ * without its message.
+ */
 @RestControllerAdvice
-public class GlobalExceptionHandler {
+public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    private final Counter validationFailures;
+    private final Counter notFound;
+    private final Counter serverErrors;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.validationFailures = Counter.builder("tasks.validation.failures")
+                .description("Requests rejected with 400 because of invalid input")
+                .register(meterRegistry);
+        this.notFound = Counter.builder("tasks.not.found")
+                .description("Requests answered with 404")
+                .register(meterRegistry);
+        this.serverErrors = Counter.builder("tasks.server.errors")
+                .description("Requests that failed with 500 because of an unexpected exception")
+                .register(meterRegistry);
+    }
 
     @ExceptionHandler(IllegalArgumentException.class)
-    public ResponseEntity<ErrorResponse> handleIllegalArgument(IllegalArgumentException ex) {
-        ErrorResponse error = new ErrorResponse("BAD_REQUEST", ex.getMessage());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    public ResponseEntity<ProblemDetail> handleIllegalArgument(IllegalArgumentException ex) {
+        validationFailures.increment();
+        return problem(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    /**
+     * Bodies Jackson cannot map, such as a due date in no accepted format.
+     */
+    @Override
+    protected ResponseEntity<Object> handleHttpMessageNotReadable(HttpMessageNotReadableException ex,
+            HttpHeaders headers, HttpStatusCode status, WebRequest request) {
+        validationFailures.increment();
+        String message = ex.getMostSpecificCause() instanceof JacksonException jackson
+                ? jackson.getOriginalMessage()
+                : "Malformed request body";
+        return ResponseEntity.badRequest().body(ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, message));
+    }
+
+    @ExceptionHandler(TaskVersionMismatchException.class)
+    public ResponseEntity<ProblemDetail> handleVersionMismatch(TaskVersionMismatchException ex) {
+        return problem(HttpStatus.PRECONDITION_FAILED, ex.getMessage());
+    }
+
+    @ExceptionHandler(TaskNotFoundException.class)
+    public ResponseEntity<ProblemDetail> handleNotFound(TaskNotFoundException ex) {
+        notFound.increment();
+        return problem(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ProblemDetail> handleUnexpected(Exception ex) {
+        serverErrors.increment();
+        log.error("Request failed with an unexpected exception", ex);
+        return problem(HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred");
     }
 
-    @ExceptionHandler(RuntimeException.class)
-    public ResponseEntity<ErrorResponse> handleNotFound(RuntimeException ex) {
-        ErrorResponse error = new ErrorResponse("NOT_FOUND", ex.getMessage());
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    private static ResponseEntity<ProblemDetail> problem(HttpStatus status, String detail) {
+        return ResponseEntity.status(status).body(ProblemDetail.forStatusAndDetail(status, detail));
     }
-}
\ No newline at end of file
+}
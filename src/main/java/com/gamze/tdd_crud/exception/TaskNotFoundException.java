@@ -0,0 +1,24 @@
+package com.gamze.tdd_crud.exception;
+
+/**
+ * Thrown for ids no task has. Scanners probing random ids make this path hot, so the
+ * exception records no stack trace, which is most of what constructing one costs, and its
+ * message is only built if someone reads it.
+ */
+public class TaskNotFoundException extends RuntimeException {
+    private final Long id;
+
+    public TaskNotFoundException(Long id) {
+        super(null, null, false, false);
+        this.id = id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Task not found with id: " + id;
+    }
+}
@@ -0,0 +1,8 @@
+package com.gamze.tdd_crud.exception;
+
+public class TaskVersionMismatchException extends RuntimeException {
+
+    public TaskVersionMismatchException(Long id) {
+        super("Task with id " + id + " has been modified by another request");
+    }
+}
@@ -0,0 +1,238 @@
+package com.gamze.tdd_crud.feed;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.gamze.tdd_crud.dto.TaskChange;
+import com.gamze.tdd_crud.event.TaskChangedEvent;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Server-Sent Events stream of committed task changes. Each change gets the next sequence
+ * number and is kept in a ring buffer of the last {@code tasks.changes.buffer-size} changes,
+ * the only copy there is: subscribers hold just the sequence they have sent up to and read
+ * from the ring on the feed's own {@code tasks.changes.drain-threads} threads, so a slow client
+ * costs no memory and cannot take threads from other async requests, such as exports. A subscriber the
+ * ring has overtaken is disconnected; it can resume with {@code Last-Event-ID}. Resuming from
+ * a sequence no longer in the ring first sends a {@code reset} event, after which the client
+ * should re-read the tasks it follows.
+ */
+@Component
+public class TaskChangeFeed {
+    private final Executor executor;
+    private final Duration timeout;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final TaskChange[] ring;
+    // Sequence of the next change; the ring holds those from nextSequence - ring.length on. Guarded by this.
+    private long nextSequence = 1;
+
+    @Autowired
+    public TaskChangeFeed(@Value("${tasks.changes.drain-threads:8}") int drainThreads,
+            @Value("${tasks.changes.buffer-size:10000}") int bufferSize,
+            @Value("${tasks.changes.timeout:30m}") Duration timeout) {
+        this(drainExecutor(drainThreads), bufferSize, timeout);
+    }
+
+    TaskChangeFeed(Executor executor, int bufferSize, Duration timeout) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Change buffer size must be positive");
+        }
+        this.executor = executor;
+        this.ring = new TaskChange[bufferSize];
+        this.timeout = timeout;
+    }
+
+    /**
+     * Streams changes after {@code lastSequence}, or from now on if it is {@code null}.
+     */
+    public SseEmitter subscribe(Long lastSequence) {
+        return subscribe(lastSequence, new SseEmitter(timeout.toMillis()));
+    }
+
+    SseEmitter subscribe(Long lastSequence, SseEmitter emitter) {
+        Subscriber subscriber;
+        synchronized (this) {
+            boolean inRing = lastSequence != null && lastSequence >= oldestSequence() - 1
+                    && lastSequence < nextSequence;
+            subscriber = new Subscriber(emitter, inRing ? lastSequence : nextSequence - 1,
+                    lastSequence != null && !inRing);
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        subscriber.wake();
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        synchronized (this) {
+            long sequence = nextSequence++;
+            ring[(int) (sequence % ring.length)] = new TaskChange(sequence, event.type(), event.id(), event.task());
+        }
+        subscribers.forEach(Subscriber::wake);
+    }
+
+    /**
+     * Comments sent to idle streams, so proxies keep them open and dead clients are noticed.
+     */
+    @Scheduled(fixedRateString = "${tasks.changes.heartbeat-interval:15s}")
+    public void heartbeat() {
+        subscribers.forEach(Subscriber::heartbeat);
+    }
+
+    /**
+     * Ends every stream when the application shuts down. Open streams would otherwise count as
+     * requests in progress and hold up the web server's graceful shutdown until it times out.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void closeAll() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor instanceof ExecutorService drainers) {
+            drainers.shutdownNow();
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Changes after {@code sequence}, at most {@code limit} of them, or {@code null} if the
+     * ring no longer holds the one right after it.
+     */
+    private synchronized List<TaskChange> after(long sequence, int limit) {
+        if (sequence + 1 < oldestSequence()) {
+            return null;
+        }
+        List<TaskChange> changes = new ArrayList<>((int) Math.min(limit, nextSequence - sequence - 1));
+        for (long next = sequence + 1; next < nextSequence && changes.size() < limit; next++) {
+            changes.add(ring[(int) (next % ring.length)]);
+        }
+        return changes;
+    }
+
+    private synchronized long latestSequence() {
+        return nextSequence - 1;
+    }
+
+    /**
+     * Each subscriber has at most one drain queued or running, so the queue stays within the
+     * number of subscribers.
+     */
+    private static ExecutorService drainExecutor(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Change feed drain threads must be positive");
+        }
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor drainers = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "task-changes-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        drainers.allowCoreThreadTimeOut(true);
+        return drainers;
+    }
+
+    private long oldestSequence() {
+        return Math.max(1, nextSequence - ring.length);
+    }
+
+    private final class Subscriber {
+        private static final int BATCH = 256;
+
+        private final SseEmitter emitter;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean heartbeatDue;
+        private boolean resetDue;
+        // Only touched by the drain task, which never runs twice at once.
+        private long sent;
+
+        Subscriber(SseEmitter emitter, long sent, boolean resetDue) {
+            this.emitter = emitter;
+            this.sent = sent;
+            this.resetDue = resetDue;
+        }
+
+        void heartbeat() {
+            heartbeatDue = true;
+            wake();
+        }
+
+        void wake() {
+            if (scheduled.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                while (true) {
+                    if (resetDue) {
+                        emitter.send(SseEmitter.event().name("reset").id(String.valueOf(sent)).data(sent));
+                        resetDue = false;
+                    }
+                    List<TaskChange> changes = after(sent, BATCH);
+                    if (changes == null) {
+                        // Overtaken by the ring: the client reconnects and resumes, or resets.
+                        subscribers.remove(this);
+                        emitter.complete();
+                        return;
+                    }
+                    for (TaskChange change : changes) {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(change.sequence()))
+                                .name(change.type().name().toLowerCase(Locale.ROOT))
+                                .data(change));
+                        sent = change.sequence();
+                    }
+                    if (changes.isEmpty() && heartbeatDue) {
+                        heartbeatDue = false;
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                    if (!changes.isEmpty()) {
+                        continue;
+                    }
+                    scheduled.set(false);
+                    // A change published after the ring was read but before the flag was
+                    // cleared found the task still scheduled, so look once more.
+                    if ((latestSequence() == sent && !heartbeatDue) || !scheduled.compareAndSet(false, true)) {
+                        return;
+                    }
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // The client went away, or the emitter already completed.
+                subscribers.remove(this);
+                emitter.completeWithError(ex);
+            }
+        }
+    }
+}
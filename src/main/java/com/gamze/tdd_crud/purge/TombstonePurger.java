@@ -0,0 +1,82 @@
+package com.gamze.tdd_crud.purge;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.gamze.tdd_crud.repository.TaskRepository;
+
+/**
+ * Opt-in soft delete ({@code tasks.soft-delete.enabled}). Deletes then only set
+ * {@code deletedAt}, a single-row update that touches no index but the ones holding the row.
+ * The purge job removes tombstones older than the retention period off-peak
+ * ({@code tasks.soft-delete.purge-cron}), in small batches with a pause between them, so each
+ * transaction holds its locks briefly and live traffic is never queued behind a mass delete.
+ */
+@Component
+public class TombstonePurger {
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration retention;
+    private final int batchSize;
+    private final Duration pause;
+    private final Duration timeBudget;
+
+    public TombstonePurger(TaskRepository taskRepository, PlatformTransactionManager transactionManager,
+            @Value("${tasks.soft-delete.enabled:false}") boolean enabled,
+            @Value("${tasks.soft-delete.retention:1h}") Duration retention,
+            @Value("${tasks.soft-delete.purge-batch-size:500}") int batchSize,
+            @Value("${tasks.soft-delete.purge-pause:50ms}") Duration pause,
+            @Value("${tasks.soft-delete.purge-time-budget:9m}") Duration timeBudget) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Purge batch size must be positive");
+        }
+        this.taskRepository = taskRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.pause = pause;
+        this.timeBudget = timeBudget;
+    }
+
+    public boolean isSoftDeleteEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Each run stops after {@code tasks.soft-delete.purge-time-budget}, so a run that starts
+     * late in the window does not carry on into peak hours; the next run picks up the rest.
+     */
+    @Scheduled(cron = "${tasks.soft-delete.purge-cron:0 */10 1-5 * * *}")
+    public void purgeOffPeak() throws InterruptedException {
+        if (enabled) {
+            purge(LocalDateTime.now().minus(retention), Instant.now().plus(timeBudget));
+        }
+    }
+
+    /**
+     * Removes tasks deleted before {@code cutoff} and returns how many there were. Each batch
+     * commits on its own. No batch is started after {@code deadline}, so tombstones may be
+     * left for a later call.
+     */
+    public long purge(LocalDateTime cutoff, Instant deadline) throws InterruptedException {
+        long purged = 0;
+        while (Instant.now().isBefore(deadline)) {
+            Integer deleted = transactionTemplate.execute(status -> taskRepository.purgeDeleted(cutoff, batchSize));
+            purged += deleted;
+            if (deleted < batchSize) {
+                return purged;
+            }
+            Thread.sleep(pause.toMillis());
+        }
+        return purged;
+    }
+}
@@ -0,0 +1,125 @@
+package com.gamze.tdd_crud.ratelimit;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.converter.json.ProblemDetailJacksonMixin;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Opt-in per-client rate limit on {@code /api/**} ({@code tasks.rate-limit.enabled}). Each
+ * client, identified by its {@code X-API-Key} header if that is one of {@code api-keys} or
+ * else by its remote address, gets a {@link TokenBucket} of {@code burst} requests refilled at {@code requests-per-second}.
+ * Requests over the limit are answered with 429 and a {@code Retry-After} header before they
+ * reach the controller. Buckets live in a Caffeine cache bounded to {@code max-clients}
+ * entries, and a bucket idle for {@code idle-timeout} is dropped; it would be full again by
+ * then anyway, as long as the timeout is longer than {@code burst / requests-per-second}.
+ * Unknown keys are not trusted: a client could otherwise escape its limit, and push other
+ * clients' buckets out of the cache, by sending a new key with every request.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    public static final String API_KEY_HEADER = "X-API-Key";
+
+    private final JsonMapper jsonMapper;
+    private final boolean enabled;
+    private final long intervalNanos;
+    private final int burst;
+    private final Cache<String, TokenBucket> buckets;
+    private final Counter limited;
+    private final LongSupplier clock;
+    private final Set<String> apiKeys;
+
+    @Autowired
+    public RateLimitFilter(JsonMapper jsonMapper, MeterRegistry meterRegistry,
+            @Value("${tasks.rate-limit.enabled:false}") boolean enabled,
+            @Value("${tasks.rate-limit.requests-per-second:50}") double requestsPerSecond,
+            @Value("${tasks.rate-limit.burst:100}") int burst,
+            @Value("${tasks.rate-limit.max-clients:100000}") long maxClients,
+            @Value("${tasks.rate-limit.idle-timeout:10m}") Duration idleTimeout,
+            @Value("${tasks.rate-limit.api-keys:}") String apiKeys) {
+        this(jsonMapper, meterRegistry, enabled, requestsPerSecond, burst, maxClients, idleTimeout,
+                List.of(StringUtils.trimArrayElements(StringUtils.commaDelimitedListToStringArray(apiKeys))),
+                System::nanoTime);
+    }
+
+    RateLimitFilter(JsonMapper jsonMapper, MeterRegistry meterRegistry, boolean enabled, double requestsPerSecond,
+            int burst, long maxClients, Duration idleTimeout, Collection<String> apiKeys, LongSupplier clock) {
+        if (requestsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate limit and burst must be positive");
+        }
+        // Same problem body layout as MVC error responses: no nulls, extension members inline.
+        this.jsonMapper = jsonMapper.rebuild().addMixIn(ProblemDetail.class, ProblemDetailJacksonMixin.class).build();
+        this.enabled = enabled;
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond));
+        this.burst = burst;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(idleTimeout)
+                .ticker(clock::getAsLong)
+                .build();
+        this.limited = Counter.builder("tasks.rate.limited")
+                .description("Requests answered with 429 by the per-client rate limit")
+                .register(meterRegistry);
+        this.clock = clock;
+        this.apiKeys = Set.copyOf(apiKeys);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = clock.getAsLong();
+        TokenBucket bucket = buckets.get(clientKey(request), key -> new TokenBucket(intervalNanos, burst, now));
+        long wait = bucket.tryAcquire(now);
+        if (wait == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+        limited.increment();
+        long retryAfterSeconds = Math.max(1, (wait + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        jsonMapper.writeValue(response.getOutputStream(), ProblemDetail.forStatusAndDetail(
+                HttpStatus.TOO_MANY_REQUESTS, "Rate limit exceeded, retry in " + retryAfterSeconds + " seconds"));
+    }
+
+    long trackedClients() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        return apiKey != null && apiKeys.contains(apiKey) ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,38 @@
+package com.gamze.tdd_crud.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: instead of a token count it keeps the time at
+ * which the bucket will next be full, so taking a token is a single compare-and-set.
+ * Times are {@link System#nanoTime()} values.
+ */
+final class TokenBucket {
+    private final long interval;
+    private final long tolerance;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(long intervalNanos, int burst, long now) {
+        this.interval = intervalNanos;
+        this.tolerance = (burst - 1) * intervalNanos;
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * Takes a token and returns zero, or returns how many nanoseconds remain until one is
+     * available and takes nothing.
+     */
+    long tryAcquire(long now) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long start = arrival - now > 0 ? arrival : now;
+            long wait = start - tolerance - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, start + interval)) {
+                return 0;
+            }
+        }
+    }
+}
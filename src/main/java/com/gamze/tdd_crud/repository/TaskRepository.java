@@ -1,9 +1,78 @@
 package com.gamze.tdd_crud.repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import com.gamze.tdd_crud.dto.TaskResponse;
 import com.gamze.tdd_crud.entity.Task;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {}
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
+    /**
+     * Constructor expression selecting only the columns of {@link TaskResponse}.
+     */
+    String TASK_RESPONSE = "new com.gamze.tdd_crud.dto.TaskResponse("
+            + "t.id, t.title, t.description, t.dueDate, t.completed, t.createdAt, t.version)";
+
+    @Query("SELECT " + TASK_RESPONSE + " FROM Task t WHERE t.id IN :ids")
+    List<TaskResponse> findResponsesByIdIn(Collection<Long> ids);
+
+    /**
+     * Updates the task and returns its state from before the update in a single round-trip
+     * using an H2 data change delta table. When {@code expectedVersion} is not {@code null}
+     * the row is only updated if its version still matches. Empty when no row was updated.
+     */
+    @Query(nativeQuery = true, value = """
+            SELECT id, title, description, due_date AS "dueDate", completed, created_at AS "createdAt", version
+            FROM OLD TABLE (
+                UPDATE tasks
+                SET title = :title, description = :description, due_date = :dueDate, completed = :completed,
+                    version = version + 1
+                WHERE id = :id AND deleted_at IS NULL AND (:expectedVersion IS NULL OR version = :expectedVersion)
+            )
+            """)
+    Optional<TaskResponse> updateFields(Long id, Long expectedVersion,
+            String title, String description, LocalDate dueDate, boolean completed);
+
+    /**
+     * Deletes the task without loading it first and returns the deleted row, if there was one.
+     */
+    @Query(nativeQuery = true, value = """
+            SELECT id, title, description, due_date AS "dueDate", completed, created_at AS "createdAt", version
+            FROM OLD TABLE (DELETE FROM tasks WHERE id = :id AND deleted_at IS NULL)
+            """)
+    Optional<TaskResponse> deleteTaskById(Long id);
+
+    /**
+     * Marks the task deleted and returns its state from before, like {@link #deleteTaskById}.
+     * The row stays until {@link #purgeDeleted} removes it.
+     */
+    @Query(nativeQuery = true, value = """
+            SELECT id, title, description, due_date AS "dueDate", completed, created_at AS "createdAt", version
+            FROM OLD TABLE (UPDATE tasks SET deleted_at = :deletedAt WHERE id = :id AND deleted_at IS NULL)
+            """)
+    Optional<TaskResponse> softDeleteTaskById(Long id, LocalDateTime deletedAt);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.deletedAt = :deletedAt WHERE t.id IN :ids AND t.deletedAt IS NULL")
+    int softDeleteAllByIdIn(Collection<Long> ids, LocalDateTime deletedAt);
+
+    /**
+     * Removes up to {@code limit} tasks deleted before {@code cutoff}. The tombstones are
+     * found through the range of the indexes that follows the live rows. H2 would re-run an
+     * {@code IN (subquery)} for every row, so the limit goes on the DELETE itself.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            DELETE FROM tasks WHERE deleted_at < :cutoff FETCH FIRST :limit ROWS ONLY
+            """)
+    int purgeDeleted(LocalDateTime cutoff, int limit);
+}
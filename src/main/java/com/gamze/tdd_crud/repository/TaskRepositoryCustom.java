@@ -0,0 +1,46 @@
+package com.gamze.tdd_crud.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import com.gamze.tdd_crud.dto.DueDateCursor;
+import com.gamze.tdd_crud.dto.TaskCounts;
+import com.gamze.tdd_crud.dto.TaskCursor;
+import com.gamze.tdd_crud.dto.TaskFilter;
+import com.gamze.tdd_crud.dto.TaskResponse;
+
+public interface TaskRepositoryCustom {
+
+    /**
+     * Reads the task straight into a {@link TaskResponse} without creating a managed entity.
+     */
+    Optional<TaskResponse> findResponseById(Long id);
+
+    /**
+     * Returns up to {@code limit} tasks matching the filter, ordered by {@code (createdAt, id)}
+     * and strictly after the given cursor. A {@code null} cursor starts from the first task.
+     */
+    List<TaskResponse> findPage(TaskFilter filter, TaskCursor after, int limit);
+
+    /**
+     * Returns up to {@code limit} incomplete tasks due before {@code today}, most overdue
+     * first, ordered by {@code (dueDate, id)} and strictly after the given cursor.
+     */
+    List<TaskResponse> findOverdue(LocalDate today, DueDateCursor after, int limit);
+
+    /**
+     * Streams every task in id order through a forward-only cursor. Rows are read as
+     * projections, so the persistence context never grows. Must be called inside a transaction.
+     * With {@code tasks.scan.partitions} above one, the id range is split and the partitions
+     * are read concurrently, each in its own read-only transaction; {@code action} still runs
+     * on the calling thread, in id order.
+     */
+    long forEachTask(Consumer<TaskResponse> action);
+
+    /**
+     * Counts the tasks for the stats reconciliation, one id range per partition in parallel.
+     */
+    TaskCounts countTasks();
+}
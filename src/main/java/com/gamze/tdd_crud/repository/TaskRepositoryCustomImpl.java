@@ -0,0 +1,351 @@
+package com.gamze.tdd_crud.repository;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.gamze.tdd_crud.dto.DateCount;
+import com.gamze.tdd_crud.dto.DueDateCursor;
+import com.gamze.tdd_crud.dto.TaskCounts;
+import com.gamze.tdd_crud.dto.TaskCursor;
+import com.gamze.tdd_crud.dto.TaskFilter;
+import com.gamze.tdd_crud.dto.TaskResponse;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Read-path queries are JPQL strings issued directly on the entity manager. Hibernate caches
+ * the plan for each distinct string, whereas a Criteria tree rebuilt per call or an
+ * {@code @Query} method invocation allocated 5-20 KB more per request (see ReadPathBenchmark).
+ * Hibernate adds {@code deleted_at IS NULL} to each of them; ordering by the constant
+ * {@code deletedAt} first lets H2 return rows in the order of the live-row indexes.
+ * <p>
+ * Full scans can be split into {@code tasks.scan.partitions} contiguous id ranges that are
+ * read concurrently, each on its own connection. Ranges rather than id hashes, because each
+ * range is a seek into the primary key, while every hash bucket would walk the whole index.
+ * Partitions are read with native SQL, which Hibernate leaves without its tombstone check, so
+ * that check can be written in a form that keeps H2 on the primary key.
+ * Each partition reads its own snapshot, so a split scan is not one consistent read; keep
+ * the partitions below the connection pool size.
+ */
+class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+    private static final int EXPORT_FETCH_SIZE = 1000;
+    private static final String SELECT_RESPONSE = "SELECT " + TaskRepository.TASK_RESPONSE + " FROM Task t";
+    // The tombstone check is spelled so that no index can serve it. H2 would otherwise pick a
+    // live-row index, whose leading deleted_at matches it, and filter the whole live range for
+    // every partition instead of seeking the primary key to the partition's ids.
+    private static final String LIVE_IN_RANGE = " FROM tasks WHERE id BETWEEN ? AND ? AND COALESCE(deleted_at, NULL) IS NULL";
+    private static final Object END_OF_PARTITION = new Object();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnly;
+    private final int partitions;
+    private final ExecutorService scanners;
+
+    TaskRepositoryCustomImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            @Value("${tasks.scan.partitions:1}") int partitions) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("Scan partitions must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.partitions = partitions;
+        AtomicInteger threads = new AtomicInteger();
+        this.scanners = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "task-scan-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scanners.shutdownNow();
+    }
+
+    @Override
+    public Optional<TaskResponse> findResponseById(Long id) {
+        return entityManager.createQuery(SELECT_RESPONSE + " WHERE t.id = :id", TaskResponse.class)
+                .setParameter("id", id)
+                .getResultList()
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public List<TaskResponse> findPage(TaskFilter filter, TaskCursor after, int limit) {
+        StringJoiner where = new StringJoiner(" AND ", " WHERE ", "").setEmptyValue("");
+        if (filter.completed() != null) {
+            where.add("t.completed = :completed");
+        }
+        if (filter.dueDate() != null) {
+            where.add("t.dueDate = :dueDate");
+        }
+        if (filter.dueBefore() != null) {
+            where.add("t.dueDate < :dueBefore");
+        }
+        if (filter.dueAfter() != null) {
+            where.add("t.dueDate > :dueAfter");
+        }
+        if (after != null) {
+            // The redundant lower bound lets the index seek straight to the cursor
+            // instead of evaluating the OR against every preceding row.
+            where.add("t.createdAt >= :afterCreatedAt");
+            where.add("(t.createdAt > :afterCreatedAt OR t.id > :afterId)");
+        }
+
+        // A due date range is narrower than the whole live range, so H2 should pick the due date
+        // index and sort the matches; naming deletedAt in the ORDER BY would tempt it to walk
+        // the creation-order index instead.
+        boolean dueDateRange = filter.dueDate() != null || filter.dueBefore() != null || filter.dueAfter() != null;
+        String order = dueDateRange ? " ORDER BY t.createdAt, t.id" : " ORDER BY t.deletedAt, t.createdAt, t.id";
+        TypedQuery<TaskResponse> query = entityManager.createQuery(
+                        SELECT_RESPONSE + where + order, TaskResponse.class)
+                .setMaxResults(limit);
+        if (filter.completed() != null) {
+            query.setParameter("completed", filter.completed());
+        }
+        if (filter.dueDate() != null) {
+            query.setParameter("dueDate", filter.dueDate());
+        }
+        if (filter.dueBefore() != null) {
+            query.setParameter("dueBefore", filter.dueBefore());
+        }
+        if (filter.dueAfter() != null) {
+            query.setParameter("dueAfter", filter.dueAfter());
+        }
+        if (after != null) {
+            query.setParameter("afterCreatedAt", after.createdAt());
+            query.setParameter("afterId", after.id());
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public List<TaskResponse> findOverdue(LocalDate today, DueDateCursor after, int limit) {
+        // deletedAt and completed are constant here, but leading with them lets H2 read the page
+        // in idx_tasks_deleted_at_completed_due_date_id order instead of sorting every overdue row.
+        String order = " ORDER BY t.deletedAt, t.completed, t.dueDate, t.id";
+        String where = " WHERE t.completed = FALSE AND t.dueDate < :today";
+        if (after != null) {
+            where += " AND t.dueDate >= :afterDueDate AND (t.dueDate > :afterDueDate OR t.id > :afterId)";
+        }
+
+        TypedQuery<TaskResponse> query = entityManager.createQuery(SELECT_RESPONSE + where + order, TaskResponse.class)
+                .setParameter("today", today)
+                .setMaxResults(limit);
+        if (after != null) {
+            query.setParameter("afterDueDate", after.dueDate());
+            query.setParameter("afterId", after.id());
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public long forEachTask(Consumer<TaskResponse> action) {
+        List<long[]> ranges = partitions == 1 ? null : idRanges();
+        if (ranges == null) {
+            return scan(action);
+        }
+        // Readers run ahead into bounded queues; draining the queues in range order keeps
+        // the output in id order and the action on this thread.
+        List<BlockingQueue<Object>> queues = new ArrayList<>();
+        List<Future<?>> readers = new ArrayList<>();
+        try {
+            for (long[] range : ranges) {
+                BlockingQueue<Object> queue = new ArrayBlockingQueue<>(EXPORT_FETCH_SIZE);
+                queues.add(queue);
+                readers.add(scanners.submit(() -> read(range, queue)));
+            }
+            long count = 0;
+            for (BlockingQueue<Object> queue : queues) {
+                for (Object next = queue.take(); next != END_OF_PARTITION; next = queue.take()) {
+                    if (next instanceof RuntimeException ex) {
+                        throw ex;
+                    }
+                    action.accept((TaskResponse) next);
+                    count++;
+                }
+            }
+            return count;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while scanning tasks");
+        } finally {
+            readers.forEach(reader -> reader.cancel(true));
+        }
+    }
+
+    @Override
+    public TaskCounts countTasks() {
+        List<long[]> ranges = partitions == 1 ? null : idRanges();
+        if (ranges == null) {
+            return readOnly.execute(status -> count());
+        }
+        List<Future<TaskCounts>> counts = new ArrayList<>();
+        try {
+            for (long[] range : ranges) {
+                counts.add(scanners.submit(() -> readOnly.execute(status -> count(range))));
+            }
+            long total = 0;
+            long completed = 0;
+            Map<LocalDate, Long> created = new TreeMap<>();
+            Map<LocalDate, Long> open = new TreeMap<>();
+            for (Future<TaskCounts> future : counts) {
+                TaskCounts partition = future.get();
+                total += partition.total();
+                completed += partition.completed();
+                partition.createdPerDay().forEach(day -> created.merge(day.date(), day.count(), Long::sum));
+                partition.openPerDueDate().forEach(day -> open.merge(day.date(), day.count(), Long::sum));
+            }
+            return new TaskCounts(total, completed, dateCounts(created), dateCounts(open));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while counting tasks");
+        } catch (ExecutionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(ex.getCause());
+        } finally {
+            counts.forEach(count -> count.cancel(true));
+        }
+    }
+
+    /**
+     * Splits the ids in use into up to {@code partitions} ranges, or returns {@code null} if
+     * there are no tasks.
+     */
+    private List<long[]> idRanges() {
+        long[] bounds = jdbcTemplate.queryForObject("SELECT MIN(id), MAX(id) FROM tasks",
+                (rs, row) -> rs.getObject(1) == null ? null : new long[] { rs.getLong(1), rs.getLong(2) });
+        if (bounds == null) {
+            return null;
+        }
+        long min = bounds[0];
+        long max = bounds[1];
+        long step = Math.max(1, (max - min + 1) / partitions);
+        List<long[]> ranges = new ArrayList<>(partitions);
+        for (long from = min; from <= max; from += step) {
+            boolean last = ranges.size() == partitions - 1 || max - from < step;
+            ranges.add(new long[] { from, last ? max : from + step - 1 });
+            if (last) {
+                break;
+            }
+        }
+        return ranges;
+    }
+
+    private void read(long[] range, BlockingQueue<Object> queue) {
+        try {
+            readOnly.executeWithoutResult(status -> scan(range, task -> put(queue, task)));
+            put(queue, END_OF_PARTITION);
+        } catch (CancellationException ex) {
+            // The consumer gave up; the transaction has been rolled back.
+        } catch (RuntimeException ex) {
+            queue.clear();
+            queue.offer(ex);
+        }
+    }
+
+    private static void put(BlockingQueue<Object> queue, Object element) {
+        try {
+            queue.put(element);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException();
+        }
+    }
+
+    private long scan(Consumer<TaskResponse> action) {
+        long count = 0;
+        try (Stream<TaskResponse> tasks = entityManager.createQuery(
+                        SELECT_RESPONSE + " ORDER BY t.id", TaskResponse.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, EXPORT_FETCH_SIZE)
+                .getResultStream()) {
+            for (TaskResponse task : (Iterable<TaskResponse>) tasks::iterator) {
+                action.accept(task);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void scan(long[] range, Consumer<TaskResponse> action) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT id, title, description, due_date, completed, created_at, version" + LIVE_IN_RANGE
+                            + " ORDER BY id");
+            statement.setFetchSize(EXPORT_FETCH_SIZE);
+            statement.setLong(1, range[0]);
+            statement.setLong(2, range[1]);
+            return statement;
+        }, (RowCallbackHandler) rs -> action.accept(new TaskResponse(rs.getLong(1), rs.getString(2),
+                rs.getString(3), rs.getObject(4, LocalDate.class), rs.getBoolean(5),
+                rs.getObject(6, LocalDateTime.class), rs.getLong(7))));
+    }
+
+    private TaskCounts count() {
+        long total = entityManager.createQuery("SELECT COUNT(t) FROM Task t", Long.class).getSingleResult();
+        long completed = entityManager.createQuery("SELECT COUNT(t) FROM Task t WHERE t.completed = TRUE", Long.class)
+                .getSingleResult();
+        List<DateCount> created = entityManager.createQuery(
+                        "SELECT new com.gamze.tdd_crud.dto.DateCount(CAST(t.createdAt AS LocalDate), COUNT(t)) "
+                                + "FROM Task t GROUP BY CAST(t.createdAt AS LocalDate)", DateCount.class)
+                .getResultList();
+        List<DateCount> open = entityManager.createQuery(
+                        "SELECT new com.gamze.tdd_crud.dto.DateCount(t.dueDate, COUNT(t)) FROM Task t "
+                                + "WHERE t.completed = FALSE AND t.dueDate IS NOT NULL GROUP BY t.dueDate", DateCount.class)
+                .getResultList();
+        return new TaskCounts(total, completed, created, open);
+    }
+
+    private TaskCounts count(long[] range) {
+        long[] totals = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*), COUNT(*) FILTER (WHERE completed)" + LIVE_IN_RANGE,
+                (rs, row) -> new long[] { rs.getLong(1), rs.getLong(2) }, range[0], range[1]);
+        RowMapper<DateCount> dateCount = (rs, row) -> new DateCount(rs.getObject(1, LocalDate.class), rs.getLong(2));
+        List<DateCount> created = jdbcTemplate.query(
+                "SELECT CAST(created_at AS DATE), COUNT(*)" + LIVE_IN_RANGE + " GROUP BY CAST(created_at AS DATE)",
+                dateCount, range[0], range[1]);
+        List<DateCount> open = jdbcTemplate.query(
+                "SELECT due_date, COUNT(*)" + LIVE_IN_RANGE
+                        + " AND completed = FALSE AND due_date IS NOT NULL GROUP BY due_date",
+                dateCount, range[0], range[1]);
+        return new TaskCounts(totals[0], totals[1], created, open);
+    }
+
+    private static List<DateCount> dateCounts(Map<LocalDate, Long> counts) {
+        List<DateCount> list = new ArrayList<>(counts.size());
+        counts.forEach((date, count) -> list.add(new DateCount(date, count)));
+        return list;
+    }
+}
@@ -0,0 +1,137 @@
+package com.gamze.tdd_crud.search;
+
+import java.util.Arrays;
+
+/**
+ * Term ids per task, so an update or delete knows which postings to remove the task from.
+ * An open-addressing table maps each task id to an offset in one shared {@code int} pool,
+ * where the entry is stored as its term count followed by the term ids. This costs about
+ * 20 bytes per task plus 4 per term, instead of the boxed key, map entry and array header
+ * a {@code HashMap<Long, int[]>} would allocate for every task.
+ */
+final class ForwardIndex {
+    private static final int EMPTY = 0;
+    private static final double MAX_LOAD = 0.6;
+
+    private long[] keys = new long[16];
+    // Offset of each key's entry in the pool; EMPTY marks a free slot, so the pool starts at 1.
+    private int[] offsets = new int[16];
+    private int[] pool = new int[64];
+    private int poolSize = 1;
+    private int garbage;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    void put(long id, int[] terms) {
+        remove(id);
+        if (size + 1 > keys.length * MAX_LOAD) {
+            resize(keys.length * 2);
+        }
+        int offset = append(terms);
+        int slot = slot(id);
+        while (offsets[slot] != EMPTY) {
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        keys[slot] = id;
+        offsets[slot] = offset;
+        size++;
+    }
+
+    /**
+     * Returns the term ids stored for {@code id}, or {@code null} if the task is not indexed.
+     */
+    int[] remove(long id) {
+        int slot = find(id);
+        if (slot < 0) {
+            return null;
+        }
+        int offset = offsets[slot];
+        int[] terms = Arrays.copyOfRange(pool, offset + 1, offset + 1 + pool[offset]);
+        garbage += terms.length + 1;
+        size--;
+        deleteSlot(slot);
+        if (garbage > poolSize / 2) {
+            compact();
+        }
+        return terms;
+    }
+
+    private int find(long id) {
+        int slot = slot(id);
+        while (offsets[slot] != EMPTY) {
+            if (keys[slot] == id) {
+                return slot;
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        return -1;
+    }
+
+    /**
+     * Backward-shift deletion keeps every probe chain intact without tombstones.
+     */
+    private void deleteSlot(int slot) {
+        int mask = keys.length - 1;
+        int next = (slot + 1) & mask;
+        while (offsets[next] != EMPTY) {
+            int home = slot(keys[next]);
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                offsets[slot] = offsets[next];
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        offsets[slot] = EMPTY;
+    }
+
+    private int append(int[] terms) {
+        int needed = poolSize + terms.length + 1;
+        if (needed > pool.length) {
+            pool = Arrays.copyOf(pool, Math.max(needed, pool.length + (pool.length >> 1)));
+        }
+        int offset = poolSize;
+        pool[offset] = terms.length;
+        System.arraycopy(terms, 0, pool, offset + 1, terms.length);
+        poolSize = needed;
+        return offset;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldOffsets = offsets;
+        keys = new long[capacity];
+        offsets = new int[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldOffsets[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                while (offsets[slot] != EMPTY) {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                keys[slot] = oldKeys[i];
+                offsets[slot] = oldOffsets[i];
+            }
+        }
+    }
+
+    private void compact() {
+        int[] oldPool = pool;
+        pool = new int[Math.max(64, poolSize - garbage)];
+        poolSize = 1;
+        garbage = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (offsets[i] != EMPTY) {
+                int offset = offsets[i];
+                offsets[i] = append(Arrays.copyOfRange(oldPool, offset + 1, offset + 1 + oldPool[offset]));
+            }
+        }
+    }
+
+    private int slot(long id) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & (keys.length - 1);
+    }
+}
@@ -0,0 +1,80 @@
+package com.gamze.tdd_crud.search;
+
+import java.util.Arrays;
+
+/**
+ * Task ids containing one term, kept sorted so several lists can be merged in a single pass.
+ * Each entry packs the term frequency and the document length into one {@code int}, which
+ * is all BM25 needs to score the entry without another lookup.
+ */
+final class PostingList {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[] stats = new int[INITIAL_CAPACITY];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    long id(int index) {
+        return ids[index];
+    }
+
+    int frequency(int index) {
+        return stats[index] >>> 16;
+    }
+
+    int length(int index) {
+        return stats[index] & 0xFFFF;
+    }
+
+    /**
+     * Ids come from a sequence, so new tasks almost always append to the end.
+     */
+    void add(long id, int frequency, int length) {
+        int index = size == 0 || ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+        int packed = Math.min(frequency, 0xFFFF) << 16 | Math.min(length, 0xFFFF);
+        if (index >= 0 && index < size) {
+            stats[index] = packed;
+            return;
+        }
+        if (index < 0) {
+            index = -index - 1;
+        }
+        if (size == ids.length) {
+            int capacity = size + (size >> 1) + 1;
+            ids = Arrays.copyOf(ids, capacity);
+            stats = Arrays.copyOf(stats, capacity);
+        }
+        System.arraycopy(ids, index, ids, index + 1, size - index);
+        System.arraycopy(stats, index, stats, index + 1, size - index);
+        ids[index] = id;
+        stats[index] = packed;
+        size++;
+    }
+
+    /**
+     * Drops the spare capacity left by growing, e.g. once a bulk rebuild has finished.
+     */
+    void trim() {
+        ids = Arrays.copyOf(ids, size);
+        stats = Arrays.copyOf(stats, size);
+    }
+
+    /**
+     * Returns the document length stored with the removed entry, or -1 if {@code id} was absent.
+     */
+    int remove(long id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index < 0) {
+            return -1;
+        }
+        int length = length(index);
+        System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+        System.arraycopy(stats, index + 1, stats, index, size - index - 1);
+        size--;
+        return length;
+    }
+}
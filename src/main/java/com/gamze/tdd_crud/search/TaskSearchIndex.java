@@ -0,0 +1,255 @@
+package com.gamze.tdd_crud.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.gamze.tdd_crud.event.TaskChangedEvent;
+import com.gamze.tdd_crud.repository.TaskRepository;
+
+/**
+ * In-memory inverted index over task titles and descriptions, ranked with BM25.
+ * Terms are lower-cased runs of letters and digits; a title occurrence counts twice.
+ * The index is built from the database at startup and then follows committed
+ * {@link TaskChangedEvent}s. Terms are never dropped from the dictionary, only their
+ * postings are, so the vocabulary grows with every distinct word ever indexed.
+ */
+@Component
+public class TaskSearchIndex {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TITLE_WEIGHT = 2;
+
+    private final TaskRepository taskRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuilding = new Object();
+    // The index searches and changes use. Guarded by lock, as are missed and its postings.
+    private Index current = new Index();
+    // Changes committed while a rebuild reads the table; null when no rebuild is running.
+    private List<TaskChangedEvent> missed;
+
+    public TaskSearchIndex(TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+
+    public record Result(List<Long> ids, int total) {}
+
+    /**
+     * Reloads the index from the database. The rows are read into a new index without the
+     * lock, so searches and writes go on against the current one meanwhile. Changes committed
+     * during the read are recorded and applied to the new index before it replaces the
+     * current one, so none is lost; applying one the read already saw does no harm.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (rebuilding) {
+            lock.writeLock().lock();
+            try {
+                missed = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            Index fresh = new Index();
+            boolean read = false;
+            try {
+                taskRepository.forEachTask(task -> fresh.put(task.id(), task.title(), task.description()));
+                fresh.trim();
+                read = true;
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    if (read) {
+                        missed.forEach(fresh::apply);
+                        current = fresh;
+                    }
+                    missed = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            current.apply(event);
+            if (missed != null) {
+                missed.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return current.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of the best {@code limit} matches for any of the query terms, highest
+     * score first, together with the total number of matching tasks.
+     */
+    public Result search(String query, int limit) {
+        List<String> terms = new ArrayList<>(tokenize(query, 1).keySet());
+        lock.readLock().lock();
+        try {
+            return current.search(terms, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static Map<String, Integer> tokenize(String text, int weight) {
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        if (text == null) {
+            return frequencies;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                frequencies.merge(text.substring(start, i).toLowerCase(Locale.ROOT), weight, Integer::sum);
+                start = -1;
+            }
+        }
+        return frequencies;
+    }
+
+    /**
+     * One generation of the index. It is not thread-safe: the current one is guarded by the
+     * lock, and one being rebuilt is only touched by the rebuilding thread until it is swapped in.
+     */
+    private static final class Index {
+        private final Map<String, Integer> termIds = new HashMap<>();
+        private final List<PostingList> postings = new ArrayList<>();
+        private final ForwardIndex documents = new ForwardIndex();
+        private long totalLength;
+
+        void apply(TaskChangedEvent event) {
+            remove(event.id());
+            if (event.type() != TaskChangedEvent.Type.DELETED) {
+                put(event.id(), event.task().title(), event.task().description());
+            }
+        }
+
+        void trim() {
+            postings.forEach(PostingList::trim);
+        }
+
+        Result search(List<String> terms, int limit) {
+            List<PostingList> lists = new ArrayList<>(terms.size());
+            List<Double> idfs = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Integer termId = termIds.get(term);
+                if (termId != null && postings.get(termId).size() > 0) {
+                    PostingList list = postings.get(termId);
+                    lists.add(list);
+                    idfs.add(Math.log(1 + (documents.size() - list.size() + 0.5) / (list.size() + 0.5)));
+                }
+            }
+            return rank(lists, idfs, limit);
+        }
+
+        private Result rank(List<PostingList> lists, List<Double> idfs, int limit) {
+            double averageLength = documents.size() == 0 ? 1 : (double) totalLength / documents.size();
+            PriorityQueue<Hit> top = new PriorityQueue<>(Hit.WORST_FIRST);
+            int[] cursors = new int[lists.size()];
+            int total = 0;
+
+            // Walk all posting lists in id order, scoring each task once.
+            while (true) {
+                long id = Long.MAX_VALUE;
+                for (int i = 0; i < lists.size(); i++) {
+                    if (cursors[i] < lists.get(i).size()) {
+                        id = Math.min(id, lists.get(i).id(cursors[i]));
+                    }
+                }
+                if (id == Long.MAX_VALUE) {
+                    break;
+                }
+                double score = 0;
+                for (int i = 0; i < lists.size(); i++) {
+                    PostingList list = lists.get(i);
+                    int cursor = cursors[i];
+                    if (cursor < list.size() && list.id(cursor) == id) {
+                        double tf = list.frequency(cursor);
+                        double norm = K1 * (1 - B + B * list.length(cursor) / averageLength);
+                        score += idfs.get(i) * tf * (K1 + 1) / (tf + norm);
+                        cursors[i]++;
+                    }
+                }
+                total++;
+                if (top.size() < limit) {
+                    top.add(new Hit(id, score));
+                } else if (limit > 0 && Hit.WORST_FIRST.compare(top.peek(), new Hit(id, score)) < 0) {
+                    top.poll();
+                    top.add(new Hit(id, score));
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(Hit.WORST_FIRST.reversed());
+            return new Result(hits.stream().map(Hit::id).toList(), total);
+        }
+
+        private void put(Long id, String title, String description) {
+            Map<String, Integer> frequencies = tokenize(title, TITLE_WEIGHT);
+            tokenize(description, 1).forEach((term, count) -> frequencies.merge(term, count, Integer::sum));
+            int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+
+            int[] terms = new int[frequencies.size()];
+            int next = 0;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                int termId = termIds.computeIfAbsent(entry.getKey(), term -> {
+                    postings.add(new PostingList());
+                    return postings.size() - 1;
+                });
+                postings.get(termId).add(id, entry.getValue(), length);
+                terms[next++] = termId;
+            }
+            documents.put(id, terms);
+            totalLength += length;
+        }
+
+        private void remove(Long id) {
+            int[] terms = documents.remove(id);
+            if (terms == null) {
+                return;
+            }
+            int length = 0;
+            for (int termId : terms) {
+                length = Math.max(length, postings.get(termId).remove(id));
+            }
+            totalLength -= length;
+        }
+    }
+
+    private record Hit(long id, double score) {
+        // Lower scores are worse; among equal scores the newer task loses.
+        static final Comparator<Hit> WORST_FIRST = Comparator.comparingDouble(Hit::score)
+                .thenComparing(Comparator.comparingLong(Hit::id).reversed());
+    }
+}
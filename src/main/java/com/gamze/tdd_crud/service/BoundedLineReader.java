@@ -0,0 +1,67 @@
+package com.gamze.tdd_crud.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads lines like {@link java.io.BufferedReader#readLine()}, but keeps at most
+ * {@code maxLength} characters of any one line. The rest of a longer line is read and
+ * dropped, and {@link #tooLong()} reports it, so a record without a line break cannot make
+ * the reader hold the whole stream.
+ */
+class BoundedLineReader implements Closeable {
+    private final Reader in;
+    private final int maxLength;
+    private final StringBuilder line = new StringBuilder();
+    private boolean tooLong;
+    // A '\r' ended the last line; a '\n' right after it belongs to the same line break.
+    private boolean skipLineFeed;
+
+    /**
+     * @param in read one character at a time, so it should be buffered
+     */
+    BoundedLineReader(Reader in, int maxLength) {
+        this.in = in;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Returns the next line without its line break, or {@code null} at the end of the input.
+     * A line longer than {@code maxLength} is returned cut to that length.
+     */
+    String readLine() throws IOException {
+        line.setLength(0);
+        tooLong = false;
+        int c = in.read();
+        if (skipLineFeed && c == '\n') {
+            c = in.read();
+        }
+        skipLineFeed = false;
+        if (c == -1) {
+            return null;
+        }
+        while (c != -1 && c != '\n' && c != '\r') {
+            if (line.length() < maxLength) {
+                line.append((char) c);
+            } else {
+                tooLong = true;
+            }
+            c = in.read();
+        }
+        skipLineFeed = c == '\r';
+        return line.toString();
+    }
+
+    /**
+     * Whether the line last returned by {@link #readLine()} was cut.
+     */
+    boolean tooLong() {
+        return tooLong;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
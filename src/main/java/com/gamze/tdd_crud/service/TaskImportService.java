@@ -0,0 +1,247 @@
+package com.gamze.tdd_crud.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.gamze.tdd_crud.dto.BatchItemResult;
+import com.gamze.tdd_crud.dto.ImportSummary;
+import com.gamze.tdd_crud.dto.ImportSummary.RejectedLine;
+import com.gamze.tdd_crud.entity.LenientLocalDateDeserializer;
+import com.gamze.tdd_crud.entity.Task;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Imports tasks from an NDJSON or CSV stream. The body is read one line at a time and
+ * committed in chunks through {@link TaskService#createTasks}, so at most one chunk is
+ * held in memory. Lines longer than {@code tasks.import.max-line-length} characters are
+ * rejected without being held. Because the next chunk is only read after the previous one has been
+ * committed, a slow database slows down reading from the socket instead of buffering.
+ */
+@Service
+public class TaskImportService {
+    public static final int MAX_REPORTED_REJECTIONS = 100;
+
+    private final TaskService taskService;
+    private final ObjectReader taskReader;
+    private final int chunkSize;
+    private final int maxLineLength;
+
+    public TaskImportService(TaskService taskService, JsonMapper jsonMapper,
+            @Value("${tasks.import.chunk-size:500}") int chunkSize,
+            @Value("${tasks.import.max-line-length:65536}") int maxLineLength) {
+        if (chunkSize < 1 || chunkSize > TaskService.MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Import chunk size must be between 1 and " + TaskService.MAX_BATCH_SIZE);
+        }
+        if (maxLineLength < 1) {
+            throw new IllegalArgumentException("Import line length must be positive");
+        }
+        this.taskService = taskService;
+        this.taskReader = jsonMapper.readerFor(Task.class);
+        this.chunkSize = chunkSize;
+        this.maxLineLength = maxLineLength;
+    }
+
+    public ImportSummary importNdjson(InputStream body) throws IOException {
+        Chunker chunker = new Chunker();
+        try (BoundedLineReader reader = reader(body)) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (reader.tooLong()) {
+                    chunker.reject(lineNumber, tooLong());
+                    continue;
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    chunker.add(lineNumber, taskReader.readValue(line));
+                } catch (JacksonException ex) {
+                    chunker.reject(lineNumber, "Malformed JSON: " + ex.getOriginalMessage());
+                }
+            }
+        }
+        return chunker.finish();
+    }
+
+    /**
+     * Expects a header row naming the columns ({@code title}, {@code description},
+     * {@code dueDate}, {@code completed}) in any order. Quoted fields may contain commas
+     * and doubled quotes but not line breaks.
+     */
+    public ImportSummary importCsv(InputStream body) throws IOException {
+        Chunker chunker = new Chunker();
+        try (BoundedLineReader reader = reader(body)) {
+            String header = reader.readLine();
+            if (header == null) {
+                return chunker.finish();
+            }
+            if (reader.tooLong()) {
+                throw new IllegalArgumentException("CSV header: " + tooLong());
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            List<String> names = parseCsvLine(header);
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(names.get(i).trim(), i);
+            }
+            if (!columns.containsKey("title")) {
+                throw new IllegalArgumentException("CSV header must contain a 'title' column");
+            }
+
+            String line;
+            long lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (reader.tooLong()) {
+                    chunker.reject(lineNumber, tooLong());
+                    continue;
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> fields = parseCsvLine(line);
+                if (fields == null) {
+                    chunker.reject(lineNumber, "Malformed CSV: unterminated quoted field");
+                    continue;
+                }
+                Task task = new Task();
+                try {
+                    task.setDueDate(LenientLocalDateDeserializer.parse(field(fields, columns, "dueDate")));
+                    task.setCompleted(parseCompleted(field(fields, columns, "completed")));
+                } catch (IllegalArgumentException ex) {
+                    chunker.reject(lineNumber, ex.getMessage());
+                    continue;
+                }
+                task.setTitle(field(fields, columns, "title"));
+                task.setDescription(field(fields, columns, "description"));
+                chunker.add(lineNumber, task);
+            }
+        }
+        return chunker.finish();
+    }
+
+    private BoundedLineReader reader(InputStream body) {
+        return new BoundedLineReader(new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)),
+                maxLineLength);
+    }
+
+    private String tooLong() {
+        return "Line is longer than " + maxLineLength + " characters";
+    }
+
+    /**
+     * An empty field means not completed; anything but {@code true} or {@code false} is rejected.
+     */
+    private static boolean parseCompleted(String value) {
+        if (value == null || value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        throw new IllegalArgumentException("Invalid completed value '" + value + "', expected true or false");
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Splits one CSV record. Returns {@code null} when a quoted field is not closed.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Collects parsed tasks with their source line numbers and commits them chunk by chunk.
+     */
+    private final class Chunker {
+        private final List<Task> tasks = new ArrayList<>(chunkSize);
+        private final List<Long> lineNumbers = new ArrayList<>(chunkSize);
+        private final List<RejectedLine> rejections = new ArrayList<>();
+        private long imported;
+        private long rejected;
+
+        void add(long lineNumber, Task task) {
+            tasks.add(task);
+            lineNumbers.add(lineNumber);
+            if (tasks.size() == chunkSize) {
+                flush();
+            }
+        }
+
+        void reject(long lineNumber, String error) {
+            rejected++;
+            if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+                rejections.add(new RejectedLine(lineNumber, error));
+            }
+        }
+
+        ImportSummary finish() {
+            flush();
+            return new ImportSummary(imported, rejected, rejections);
+        }
+
+        private void flush() {
+            if (tasks.isEmpty()) {
+                return;
+            }
+            for (BatchItemResult result : taskService.createTasks(tasks)) {
+                if (result.status() == BatchItemResult.Status.CREATED) {
+                    imported++;
+                } else {
+                    reject(lineNumbers.get(result.index()), result.error());
+                }
+            }
+            tasks.clear();
+            lineNumbers.clear();
+        }
+    }
+}
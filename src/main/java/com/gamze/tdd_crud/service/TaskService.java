@@ -1,43 +1,363 @@
 package com.gamze.tdd_crud.service;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.gamze.tdd_crud.dto.BatchItemResult;
+import com.gamze.tdd_crud.dto.BatchItemResult.Status;
+import com.gamze.tdd_crud.dto.DueDateCursor;
+import com.gamze.tdd_crud.dto.TaskCursor;
+import com.gamze.tdd_crud.dto.TaskFilter;
+import com.gamze.tdd_crud.dto.TaskPage;
+import com.gamze.tdd_crud.dto.TaskResponse;
+import com.gamze.tdd_crud.dto.TaskSearchPage;
+import com.gamze.tdd_crud.dto.TaskStats;
 import com.gamze.tdd_crud.entity.Task;
+import com.gamze.tdd_crud.event.TaskChangedEvent;
+import com.gamze.tdd_crud.exception.TaskNotFoundException;
+import com.gamze.tdd_crud.exception.TaskVersionMismatchException;
+import com.gamze.tdd_crud.purge.TombstonePurger;
 import com.gamze.tdd_crud.repository.TaskRepository;
+import com.gamze.tdd_crud.search.TaskSearchIndex;
+import com.gamze.tdd_crud.stats.TaskStatistics;
+import com.gamze.tdd_crud.writebehind.TaskWriteBehind;
+
+import io.micrometer.core.annotation.Timed;
 
+/**
+ * Every public method is timed as {@code tasks.service} tagged with its method name.
+ * Cache hits on {@link #getTaskById} are answered before the timer and show up in
+ * {@code cache.gets} instead. Concurrent misses for the same id are coalesced: one caller
+ * loads the task while the others wait for its result. Reads return {@link TaskResponse}
+ * projections from read-only transactions, so Hibernate neither manages the rows nor keeps
+ * dirty-checking snapshots.
+ * With write-behind enabled, {@link #createTask} returns once the task is journaled; lookups
+ * by id see it immediately, and writes to it wait until it has been stored. With soft delete
+ * enabled, deletes leave a tombstone that {@link TombstonePurger} removes later.
+ */
 @Service
+@Timed(value = "tasks.service", histogram = true, percentiles = { 0.5, 0.95, 0.99 })
 public class TaskService {
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_BATCH_SIZE = 1000;
+    public static final int MAX_SEARCH_WINDOW = 10_000;
+    public static final int MAX_STATS_DAYS = 366;
+    public static final String TASKS_CACHE = "tasks";
+    private static final String NULL_BATCH_ENTRY = "Batch entry cannot be null";
+
     private final TaskRepository taskRepository;
+    private final CacheManager cacheManager;
+    private final TaskSearchIndex searchIndex;
+    private final TaskStatistics statistics;
+    private final TaskWriteBehind writeBehind;
+    private final TombstonePurger tombstones;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public TaskService(TaskRepository taskRepository) {
+    public TaskService(TaskRepository taskRepository, CacheManager cacheManager, TaskSearchIndex searchIndex,
+            TaskStatistics statistics, TaskWriteBehind writeBehind, TombstonePurger tombstones,
+            ApplicationEventPublisher eventPublisher) {
         this.taskRepository = taskRepository;
+        this.cacheManager = cacheManager;
+        this.searchIndex = searchIndex;
+        this.statistics = statistics;
+        this.writeBehind = writeBehind;
+        this.tombstones = tombstones;
+        this.eventPublisher = eventPublisher;
     }
 
-    public Task createTask(Task task) {
+    public TaskResponse createTask(Task task) {
         validateTitle(task.getTitle());
-        return taskRepository.save(task);
+        task.setDeletedAt(null);
+        if (writeBehind.isEnabled()) {
+            return writeBehind.append(task);
+        }
+        TaskResponse savedTask = TaskResponse.from(taskRepository.save(task));
+        eventPublisher.publishEvent(TaskChangedEvent.created(savedTask));
+        return savedTask;
     }
 
-    public Task getTaskById(Long id) {
-        return taskRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Task not found with id: " + id));
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = TASKS_CACHE, key = "#id", sync = true)
+    public TaskResponse getTaskById(Long id) {
+        TaskResponse pending = writeBehind.pending(id);
+        if (pending != null) {
+            return pending;
+        }
+        return taskRepository.findResponseById(id)
+                .orElseThrow(() -> new TaskNotFoundException(id));
     }
 
-    public Task updateTask(Long id, Task updatedTask) {
-        validateTitle(updatedTask.getTitle());
-        Task existingTask = getTaskById(id);
+    @Transactional(readOnly = true)
+    public TaskPage listTasks(TaskFilter filter, String cursor, int limit) {
+        validatePageLimit(limit);
+        TaskCursor after = cursor == null ? null : TaskCursor.decode(cursor);
+
+        // Fetch one extra row to learn whether another page follows without a COUNT query.
+        List<TaskResponse> tasks = taskRepository.findPage(filter, after, limit + 1);
+        if (tasks.size() <= limit) {
+            return new TaskPage(tasks, null);
+        }
+        List<TaskResponse> page = tasks.subList(0, limit);
+        return new TaskPage(page, TaskCursor.of(page.get(limit - 1)).encode());
+    }
 
-        existingTask.setTitle(updatedTask.getTitle());
-        existingTask.setDescription(updatedTask.getDescription());
-        existingTask.setDueDate(updatedTask.getDueDate());
-        existingTask.setCompleted(updatedTask.isCompleted());
+    /**
+     * Incomplete tasks whose due date has passed, most overdue first.
+     */
+    @Transactional(readOnly = true)
+    public TaskPage listOverdueTasks(String cursor, int limit) {
+        validatePageLimit(limit);
+        DueDateCursor after = cursor == null ? null : DueDateCursor.decode(cursor);
 
-        return taskRepository.save(existingTask);
+        List<TaskResponse> tasks = taskRepository.findOverdue(LocalDate.now(), after, limit + 1);
+        if (tasks.size() <= limit) {
+            return new TaskPage(tasks, null);
+        }
+        List<TaskResponse> page = tasks.subList(0, limit);
+        return new TaskPage(page, DueDateCursor.of(page.get(limit - 1)).encode());
     }
 
+    /**
+     * Ranks tasks by how well their title and description match {@code query} and returns
+     * one page of them. Tasks deleted after the index was consulted are left out.
+     */
+    @Transactional(readOnly = true)
+    public TaskSearchPage searchTasks(String query, int offset, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query cannot be empty");
+        }
+        validatePageLimit(limit);
+        if (offset < 0 || offset + limit > MAX_SEARCH_WINDOW) {
+            throw new IllegalArgumentException("Search offset must be between 0 and " + (MAX_SEARCH_WINDOW - limit));
+        }
+
+        TaskSearchIndex.Result result = searchIndex.search(query, offset + limit);
+        List<Long> ids = result.ids().subList(Math.min(offset, result.ids().size()), result.ids().size());
+        Map<Long, TaskResponse> tasks = taskRepository.findResponsesByIdIn(ids).stream()
+                .collect(Collectors.toMap(TaskResponse::id, Function.identity()));
+        List<TaskResponse> page = ids.stream().map(tasks::get).filter(Objects::nonNull).toList();
+        Integer nextOffset = offset + limit < result.total() ? offset + limit : null;
+        return new TaskSearchPage(page, result.total(), nextOffset);
+    }
+
+    /**
+     * Whether {@link #createTask} only journals the task and stores it later.
+     */
+    public boolean isWriteBehindEnabled() {
+        return writeBehind.isEnabled();
+    }
+
+    /**
+     * Task totals from in-memory counters, with creations for the last {@code days} days.
+     */
+    public TaskStats getStats(int days) {
+        if (days < 1 || days > MAX_STATS_DAYS) {
+            throw new IllegalArgumentException("Stats days must be between 1 and " + MAX_STATS_DAYS);
+        }
+        return statistics.snapshot(LocalDate.now(), days);
+    }
+
+    /**
+     * Hands every task to {@code sink} in id order without holding more than one
+     * fetch window in memory. Returns the number of exported tasks.
+     */
+    @Transactional(readOnly = true)
+    public long exportTasks(Consumer<TaskResponse> sink) {
+        return taskRepository.forEachTask(sink);
+    }
+
+    /**
+     * Updates the task if its version still equals {@code expectedVersion}; a {@code null}
+     * version updates unconditionally.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = TASKS_CACHE, key = "#id")
+    public TaskResponse updateTask(Long id, Task updatedTask, Long expectedVersion) {
+        validateTitle(updatedTask.getTitle());
+        writeBehind.awaitStored(id);
+        TaskResponse previous = taskRepository.updateFields(id, expectedVersion, updatedTask.getTitle(),
+                        updatedTask.getDescription(), updatedTask.getDueDate(), updatedTask.isCompleted())
+                .orElseThrow(() -> {
+                    // Only the failure path pays for telling a stale version from a missing task.
+                    if (expectedVersion != null && taskRepository.existsById(id)) {
+                        return new TaskVersionMismatchException(id);
+                    }
+                    return new TaskNotFoundException(id);
+                });
+        // The row now holds the submitted fields and the next version; nothing else changed.
+        TaskResponse savedTask = new TaskResponse(id, updatedTask.getTitle(), updatedTask.getDescription(),
+                updatedTask.getDueDate(), updatedTask.isCompleted(), previous.createdAt(), previous.version() + 1);
+        eventPublisher.publishEvent(TaskChangedEvent.updated(previous, savedTask));
+        return savedTask;
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = TASKS_CACHE, key = "#id")
     public void deleteTask(Long id) {
-        Task existingTask = getTaskById(id);
-        taskRepository.delete(existingTask);
+        writeBehind.awaitStored(id);
+        Optional<TaskResponse> deleted = tombstones.isSoftDeleteEnabled()
+                ? taskRepository.softDeleteTaskById(id, LocalDateTime.now())
+                : taskRepository.deleteTaskById(id);
+        TaskResponse previous = deleted.orElseThrow(() -> new TaskNotFoundException(id));
+        eventPublisher.publishEvent(TaskChangedEvent.deleted(previous));
+    }
+
+    @Transactional
+    public List<BatchItemResult> createTasks(List<Task> tasks) {
+        validateBatchSize(tasks.size());
+        BatchItemResult[] results = new BatchItemResult[tasks.size()];
+        List<Task> accepted = new ArrayList<>(tasks.size());
+
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            if (task == null) {
+                results[i] = BatchItemResult.invalid(i, null, NULL_BATCH_ENTRY);
+                continue;
+            }
+            try {
+                validateTitle(task.getTitle());
+            } catch (IllegalArgumentException ex) {
+                results[i] = BatchItemResult.invalid(i, null, ex.getMessage());
+                continue;
+            }
+            task.setId(null);
+            task.setDeletedAt(null);
+            accepted.add(task);
+        }
+
+        // Ids come from the pooled sequence, so the inserts are flushed as JDBC batches.
+        taskRepository.saveAll(accepted);
+
+        accepted.forEach(task -> eventPublisher.publishEvent(TaskChangedEvent.created(TaskResponse.from(task))));
+
+        int next = 0;
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = BatchItemResult.success(i, accepted.get(next++).getId(), Status.CREATED);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    @Transactional
+    public List<BatchItemResult> updateTasks(List<Task> updatedTasks) {
+        validateBatchSize(updatedTasks.size());
+        List<Long> ids = updatedTasks.stream().filter(Objects::nonNull).map(Task::getId).filter(Objects::nonNull)
+                .toList();
+        ids.forEach(writeBehind::awaitStored);
+        Map<Long, Task> existing = taskRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        List<BatchItemResult> results = new ArrayList<>(updatedTasks.size());
+        Map<Task, TaskResponse> changed = new LinkedHashMap<>();
+        for (int i = 0; i < updatedTasks.size(); i++) {
+            Task updatedTask = updatedTasks.get(i);
+            if (updatedTask == null) {
+                results.add(BatchItemResult.invalid(i, null, NULL_BATCH_ENTRY));
+                continue;
+            }
+            try {
+                validateTitle(updatedTask.getTitle());
+            } catch (IllegalArgumentException ex) {
+                results.add(BatchItemResult.invalid(i, updatedTask.getId(), ex.getMessage()));
+                continue;
+            }
+            Task existingTask = existing.get(updatedTask.getId());
+            if (existingTask == null) {
+                results.add(BatchItemResult.notFound(i, updatedTask.getId()));
+                continue;
+            }
+            changed.putIfAbsent(existingTask, TaskResponse.from(existingTask));
+            copyFields(updatedTask, existingTask);
+            results.add(BatchItemResult.success(i, existingTask.getId(), Status.UPDATED));
+        }
+        // Managed entities are flushed as ordered, batched UPDATEs, which also bumps their
+        // versions before the events capture the new state.
+        taskRepository.flush();
+        changed.forEach((task, previous) ->
+                eventPublisher.publishEvent(TaskChangedEvent.updated(previous, TaskResponse.from(task))));
+        evictCached(existing.keySet());
+        return results;
+    }
+
+    @Transactional
+    public List<BatchItemResult> deleteTasks(List<Long> ids) {
+        validateBatchSize(ids.size());
+        List<Long> requested = ids.stream().filter(Objects::nonNull).toList();
+        requested.forEach(writeBehind::awaitStored);
+        Map<Long, TaskResponse> existing = taskRepository.findResponsesByIdIn(requested).stream()
+                .collect(Collectors.toMap(TaskResponse::id, Function.identity()));
+        Set<Long> existingIds = existing.keySet();
+        if (tombstones.isSoftDeleteEnabled()) {
+            taskRepository.softDeleteAllByIdIn(existingIds, LocalDateTime.now());
+        } else {
+            taskRepository.deleteAllByIdInBatch(existingIds);
+        }
+        evictCached(existingIds);
+        existing.values().forEach(previous -> eventPublisher.publishEvent(TaskChangedEvent.deleted(previous)));
+
+        List<BatchItemResult> results = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            if (id == null) {
+                results.add(BatchItemResult.invalid(i, null, NULL_BATCH_ENTRY));
+            } else {
+                results.add(existingIds.contains(id)
+                        ? BatchItemResult.success(i, id, Status.DELETED)
+                        : BatchItemResult.notFound(i, id));
+            }
+        }
+        return results;
+    }
+
+    private void evictCached(Collection<Long> ids) {
+        Cache cache = cacheManager.getCache(TASKS_CACHE);
+        if (cache == null) {
+            return;
+        }
+        // Defer the evictions until commit so concurrent readers cannot re-cache old rows.
+        Cache afterCommit = new TransactionAwareCacheDecorator(cache);
+        ids.forEach(afterCommit::evict);
+    }
+
+    private void copyFields(Task source, Task target) {
+        target.setTitle(source.getTitle());
+        target.setDescription(source.getDescription());
+        target.setDueDate(source.getDueDate());
+        target.setCompleted(source.isCompleted());
+    }
+
+    private void validatePageLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    private void validateBatchSize(int size) {
+        if (size > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch size cannot exceed " + MAX_BATCH_SIZE);
+        }
     }
 
     private void validateTitle(String title) {
@@ -0,0 +1,242 @@
+package com.gamze.tdd_crud.stats;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.gamze.tdd_crud.dto.DateCount;
+import com.gamze.tdd_crud.dto.TaskCounts;
+import com.gamze.tdd_crud.dto.TaskResponse;
+import com.gamze.tdd_crud.dto.TaskStats;
+import com.gamze.tdd_crud.event.TaskChangedEvent;
+import com.gamze.tdd_crud.repository.TaskRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Task totals kept in memory so the stats endpoint never scans the table. Committed
+ * {@link TaskChangedEvent}s add and subtract the before and after states of each task through
+ * {@link LongAdder}s, so concurrent writers update separate cells instead of contending on
+ * one. Overdue tasks are counted by keeping open tasks per due date and summing the dates
+ * before today, which stays correct as days pass without any writes.
+ */
+@Component
+public class TaskStatistics {
+    private static final Logger log = LoggerFactory.getLogger(TaskStatistics.class);
+    private static final Duration MAX_RETRY_DELAY = Duration.ofSeconds(30);
+
+    private final TaskRepository taskRepository;
+    private final TaskScheduler scheduler;
+    private final Counter skipped;
+    private final Duration retryDelay;
+    private final int maxAttempts;
+    private final LongAdder total = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final ConcurrentMap<LocalDate, LongAdder> createdPerDay = new ConcurrentHashMap<>();
+    // Entries are never removed: a concurrent writer could still be adding to a removed cell.
+    private final ConcurrentNavigableMap<LocalDate, LongAdder> openPerDueDate = new ConcurrentSkipListMap<>();
+    // Equal whenever no event is being applied; reconciliation uses them to detect writers.
+    private final LongAdder eventsStarted = new LongAdder();
+    private final LongAdder eventsFinished = new LongAdder();
+    // Set while a recount and its retries are under way, so the periodic job does not start another.
+    private final AtomicBoolean recounting = new AtomicBoolean();
+
+    public TaskStatistics(TaskRepository taskRepository, TaskScheduler scheduler, MeterRegistry meterRegistry,
+            @Value("${tasks.stats.reconcile-retry-delay:100ms}") Duration retryDelay,
+            @Value("${tasks.stats.reconcile-max-attempts:10}") int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Reconcile attempts must be positive");
+        }
+        this.taskRepository = taskRepository;
+        this.scheduler = scheduler;
+        this.skipped = Counter.builder("tasks.stats.reconcile.skipped")
+                .description("Stats recounts abandoned because a write was applied while they ran")
+                .register(meterRegistry);
+        this.retryDelay = retryDelay;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Loads the counters from the database. The web server is already taking requests when
+     * this runs, so a write can race with the count; see {@link #recount()}.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        recount();
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.stats.reconcile-interval:10m}",
+            initialDelayString = "${tasks.stats.reconcile-interval:10m}")
+    public void reconcilePeriodically() {
+        recount();
+    }
+
+    /**
+     * Reconciles, retrying on the task scheduler with a doubling delay while writes race with
+     * the count. The last of {@code tasks.stats.reconcile-max-attempts} attempts corrects the
+     * counters even if writes raced with it: they can be off by the writes that did, which is
+     * far closer than leaving them uncorrected until a quiet moment that may never come.
+     */
+    void recount() {
+        if (recounting.compareAndSet(false, true)) {
+            attempt(1);
+        }
+    }
+
+    private void attempt(int attempt) {
+        boolean last = attempt >= maxAttempts;
+        try {
+            if (reconcile(last)) {
+                recounting.set(false);
+                return;
+            }
+        } catch (RuntimeException ex) {
+            recounting.set(false);
+            throw ex;
+        }
+        skipped.increment();
+        Duration delay = retryDelay.multipliedBy(1L << Math.min(attempt - 1, 20));
+        if (delay.compareTo(MAX_RETRY_DELAY) > 0) {
+            delay = MAX_RETRY_DELAY;
+        }
+        log.info("Stats recount {} of {} raced with a write; retrying in {}", attempt, maxAttempts, delay);
+        scheduler.schedule(() -> attempt(attempt + 1), Instant.now().plus(delay));
+    }
+
+    /**
+     * Recounts the tasks in the database and corrects any drift in the counters. Gives up and
+     * returns {@code false} if an event was applied while the database was read, because the
+     * counts could then not be compared. A write that commits during the read but applies its
+     * event just after it can still be counted twice, until the next reconciliation.
+     */
+    public boolean reconcile() {
+        return reconcile(false);
+    }
+
+    /**
+     * @param force correct the counters even if events were applied during the read; each of
+     *        those that the read already saw is then counted twice
+     */
+    private synchronized boolean reconcile(boolean force) {
+        long started = eventsStarted.sum();
+        if (!force && eventsFinished.sum() != started) {
+            return false;
+        }
+        long knownTotal = total.sum();
+        long knownCompleted = completed.sum();
+        Map<LocalDate, Long> knownCreated = sums(createdPerDay);
+        Map<LocalDate, Long> knownOpen = sums(openPerDueDate);
+
+        TaskCounts actual = taskRepository.countTasks();
+        Map<LocalDate, Long> actualCreated = counts(actual.createdPerDay());
+        Map<LocalDate, Long> actualOpen = counts(actual.openPerDueDate());
+
+        long raced = eventsStarted.sum() - started;
+        if (raced != 0) {
+            if (!force) {
+                return false;
+            }
+            log.warn("Stats corrected while {} writes were applied; totals may be off by up to that many", raced);
+        }
+        // Adding the differences rather than overwriting keeps events applied from here on.
+        total.add(actual.total() - knownTotal);
+        completed.add(actual.completed() - knownCompleted);
+        correct(createdPerDay, knownCreated, actualCreated);
+        correct(openPerDueDate, knownOpen, actualOpen);
+        return true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        eventsStarted.increment();
+        try {
+            if (event.previous() != null) {
+                add(event.previous(), -1);
+            }
+            if (event.task() != null) {
+                add(event.task(), 1);
+            }
+        } finally {
+            eventsFinished.increment();
+        }
+    }
+
+    /**
+     * Returns the totals as of {@code today}, with creations for the last {@code days} days.
+     */
+    public TaskStats snapshot(LocalDate today, int days) {
+        long overdue = 0;
+        for (LongAdder open : openPerDueDate.headMap(today).values()) {
+            overdue += open.sum();
+        }
+        Map<LocalDate, Long> created = new LinkedHashMap<>();
+        for (LocalDate day = today.minusDays(days - 1); !day.isAfter(today); day = day.plusDays(1)) {
+            LongAdder count = createdPerDay.get(day);
+            created.put(day, count == null ? 0 : count.sum());
+        }
+        long totalCount = total.sum();
+        long completedCount = completed.sum();
+        return new TaskStats(totalCount, completedCount, totalCount - completedCount, overdue, created);
+    }
+
+    private void add(TaskResponse task, int delta) {
+        total.add(delta);
+        if (task.completed()) {
+            completed.add(delta);
+        } else if (task.dueDate() != null) {
+            openPerDueDate.computeIfAbsent(task.dueDate(), date -> new LongAdder()).add(delta);
+        }
+        LocalDateTime createdAt = task.createdAt();
+        if (createdAt != null) {
+            createdPerDay.computeIfAbsent(createdAt.toLocalDate(), date -> new LongAdder()).add(delta);
+        }
+    }
+
+    private static Map<LocalDate, Long> sums(Map<LocalDate, LongAdder> counters) {
+        Map<LocalDate, Long> sums = new HashMap<>();
+        counters.forEach((date, counter) -> sums.put(date, counter.sum()));
+        return sums;
+    }
+
+    private static Map<LocalDate, Long> counts(List<DateCount> rows) {
+        Map<LocalDate, Long> counts = new HashMap<>();
+        rows.forEach(row -> counts.put(row.date(), row.count()));
+        return counts;
+    }
+
+    private static void correct(Map<LocalDate, LongAdder> counters, Map<LocalDate, Long> known,
+            Map<LocalDate, Long> actual) {
+        Set<LocalDate> dates = new HashSet<>(known.keySet());
+        dates.addAll(actual.keySet());
+        for (LocalDate date : dates) {
+            long drift = actual.getOrDefault(date, 0L) - known.getOrDefault(date, 0L);
+            if (drift != 0) {
+                counters.computeIfAbsent(date, key -> new LongAdder()).add(drift);
+            }
+        }
+    }
+}
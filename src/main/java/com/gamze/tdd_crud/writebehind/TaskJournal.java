@@ -0,0 +1,256 @@
+package com.gamze.tdd_crud.writebehind;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import com.gamze.tdd_crud.dto.TaskResponse;
+
+/**
+ * Append-only journal of created tasks, kept in memory-mapped segment files of a fixed size.
+ * A record is its payload length, a CRC32C of sequence and payload, the sequence number and
+ * the payload; the length is written last, so a record is either complete or invisible after
+ * a process crash. Bytes written to the mapping survive a crash of the JVM; {@link #force()}
+ * makes them survive a crash of the machine. Recovery stops at the first torn or corrupt record.
+ */
+public class TaskJournal implements Closeable {
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+    private static final int HEADER = Integer.BYTES + Integer.BYTES + Long.BYTES;
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private Segment active;
+    private long nextSequence = 1;
+
+    public record Entry(long sequence, TaskResponse task) {}
+
+    public TaskJournal(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Reads the intact records of every existing segment and returns those after
+     * {@code checkpoint}, oldest first. Segments holding nothing after the checkpoint are
+     * deleted. New records go to a fresh segment. Call once, before the first append.
+     */
+    public synchronized List<Entry> recover(long checkpoint) {
+        List<Entry> entries = new ArrayList<>();
+        try {
+            Files.createDirectories(directory);
+            List<Path> files;
+            try (Stream<Path> listing = Files.list(directory)) {
+                files = listing.filter(TaskJournal::isSegment).sorted().toList();
+            }
+            for (Path file : files) {
+                Segment segment = new Segment(file, map(file, Files.size(file)));
+                long last = read(segment.buffer, checkpoint, entries);
+                segment.lastSequence = last;
+                nextSequence = Math.max(nextSequence, last + 1);
+                if (last <= checkpoint) {
+                    Files.delete(file);
+                } else {
+                    segments.add(segment);
+                }
+            }
+            nextSequence = Math.max(nextSequence, checkpoint + 1);
+            roll();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return entries;
+    }
+
+    /**
+     * Appends the task and returns its sequence number, which is one higher than the last.
+     */
+    public synchronized long append(TaskResponse task) {
+        byte[] title = bytes(task.title());
+        byte[] description = bytes(task.description());
+        int length = Long.BYTES + Integer.BYTES + length(title) + Integer.BYTES + length(description)
+                + Long.BYTES + 1 + Long.BYTES + Integer.BYTES;
+        if (HEADER + length > segmentSize) {
+            throw new IllegalArgumentException("Task is too large for the journal");
+        }
+        if (active.position + HEADER + length > segmentSize) {
+            roll();
+        }
+
+        long sequence = nextSequence++;
+        int start = active.position;
+        ByteBuffer record = active.buffer.duplicate().position(start + Integer.BYTES * 2);
+        record.putLong(sequence);
+        record.putLong(task.id());
+        put(record, title);
+        put(record, description);
+        record.putLong(task.dueDate() == null ? NO_DATE : task.dueDate().toEpochDay());
+        record.put((byte) (task.completed() ? 1 : 0));
+        record.putLong(task.createdAt().toEpochSecond(ZoneOffset.UTC));
+        record.putInt(task.createdAt().getNano());
+
+        active.buffer.putInt(start + Integer.BYTES, checksum(active.buffer, start, length));
+        active.buffer.putInt(start, length);
+        active.position = start + HEADER + length;
+        active.lastSequence = sequence;
+        return sequence;
+    }
+
+    /**
+     * Flushes everything appended so far to the storage device.
+     */
+    public void force() {
+        List<Segment> dirty = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        synchronized (this) {
+            for (Segment segment : segments) {
+                if (segment.position > segment.forced) {
+                    dirty.add(segment);
+                    positions.add(segment.position);
+                }
+            }
+        }
+        // The slow part runs outside the lock, so appends are never held up by a flush.
+        for (int i = 0; i < dirty.size(); i++) {
+            Segment segment = dirty.get(i);
+            int position = positions.get(i);
+            segment.buffer.force(segment.forced, position - segment.forced);
+            segment.forced = position;
+        }
+    }
+
+    /**
+     * Deletes the segments whose records all have a sequence number up to {@code sequence}.
+     */
+    public synchronized void release(long sequence) {
+        while (segments.size() > 1 && segments.peekFirst().lastSequence <= sequence) {
+            try {
+                Files.deleteIfExists(segments.pollFirst().file);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        force();
+    }
+
+    private void roll() throws UncheckedIOException {
+        Path file = directory.resolve(String.format("%s%020d%s", PREFIX, nextSequence, SUFFIX));
+        try {
+            active = new Segment(file, map(file, segmentSize));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        active.lastSequence = nextSequence - 1;
+        segments.add(active);
+    }
+
+    private static long read(MappedByteBuffer buffer, long checkpoint, List<Entry> entries) {
+        long last = 0;
+        int position = 0;
+        while (position + HEADER <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + HEADER + length > buffer.capacity()
+                    || buffer.getInt(position + Integer.BYTES) != checksum(buffer, position, length)) {
+                break;
+            }
+            ByteBuffer record = buffer.duplicate().position(position + Integer.BYTES * 2);
+            long sequence = record.getLong();
+            if (sequence > checkpoint) {
+                entries.add(new Entry(sequence, decode(record)));
+            }
+            last = sequence;
+            position += HEADER + length;
+        }
+        return last;
+    }
+
+    private static TaskResponse decode(ByteBuffer record) {
+        long id = record.getLong();
+        String title = string(record);
+        String description = string(record);
+        long dueDate = record.getLong();
+        boolean completed = record.get() == 1;
+        LocalDateTime createdAt = LocalDateTime.ofEpochSecond(record.getLong(), record.getInt(), ZoneOffset.UTC);
+        return new TaskResponse(id, title, description, dueDate == NO_DATE ? null : LocalDate.ofEpochDay(dueDate),
+                completed, createdAt, 0L);
+    }
+
+    private static int checksum(ByteBuffer buffer, int start, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start + Integer.BYTES * 2, Long.BYTES + length));
+        return (int) crc.getValue();
+    }
+
+    private static MappedByteBuffer map(Path file, long size) throws IOException {
+        // The mapping stays valid after the channel is closed.
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] value) {
+        return value == null ? 0 : value.length;
+    }
+
+    private static void put(ByteBuffer record, byte[] value) {
+        record.putInt(value == null ? -1 : value.length);
+        if (value != null) {
+            record.put(value);
+        }
+    }
+
+    private static String string(ByteBuffer record) {
+        int length = record.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        record.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    private static final class Segment {
+        final Path file;
+        final MappedByteBuffer buffer;
+        int position;
+        volatile int forced;
+        long lastSequence;
+
+        Segment(Path file, MappedByteBuffer buffer) {
+            this.file = file;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.gamze.tdd_crud.writebehind;
+
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import com.gamze.tdd_crud.dto.TaskResponse;
+import com.gamze.tdd_crud.entity.Task;
+import com.gamze.tdd_crud.event.TaskChangedEvent;
+
+/**
+ * Opt-in write-behind for task creation ({@code tasks.write-behind.enabled}). A new task gets
+ * its id from {@code tasks_seq} and is appended to the {@link TaskJournal}; the request returns
+ * without touching the database. A background thread inserts journaled tasks in batches and
+ * records the last stored journal sequence in the same transaction, so the journal left behind
+ * by a crash is replayed on the next start without inserting anything twice.
+ * <p>
+ * Until its batch commits, a task is only visible through {@link #pending(Long)}: lookups by id
+ * read their own writes, while lists, search and stats show it once it has been stored.
+ */
+@Component
+public class TaskWriteBehind implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(TaskWriteBehind.class);
+    private static final String INSERT = "INSERT INTO tasks (id, title, description, due_date, completed, created_at, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, 0)";
+    private static final String CHECKPOINT = "MERGE INTO task_journal_checkpoint KEY (id) VALUES (1, ?)";
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(5);
+
+    private final boolean enabled;
+    private final Path journalDir;
+    private final DataSize segmentSize;
+    private final Duration fsyncInterval;
+    private final int batchSize;
+    private final Duration awaitTimeout;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, Pending> inFlight = new ConcurrentHashMap<>();
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private TaskJournal journal;
+    private ScheduledExecutorService flusher;
+    private Thread drainer;
+    private volatile boolean running;
+    // Ids handed out from the current block of the sequence; guarded by this.
+    private long nextId;
+    private long lastId = -1;
+
+    private record Pending(long sequence, TaskResponse task, CompletableFuture<Void> stored) {}
+
+    public TaskWriteBehind(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${tasks.write-behind.enabled:false}") boolean enabled,
+            @Value("${tasks.write-behind.journal-dir:./data/journal}") Path journalDir,
+            @Value("${tasks.write-behind.segment-size:16MB}") DataSize segmentSize,
+            @Value("${tasks.write-behind.fsync-interval:5ms}") Duration fsyncInterval,
+            @Value("${tasks.write-behind.batch-size:500}") int batchSize,
+            @Value("${tasks.write-behind.await-timeout:10s}") Duration awaitTimeout) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Write-behind batch size must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.journalDir = journalDir;
+        this.segmentSize = segmentSize;
+        this.fsyncInterval = fsyncInterval;
+        this.batchSize = batchSize;
+        this.awaitTimeout = awaitTimeout;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Assigns the task an id and journals it. The returned state is what the row will hold.
+     */
+    public TaskResponse append(Task task) {
+        if (!running) {
+            throw new IllegalStateException("Write-behind is not running");
+        }
+        // Rows keep microseconds, so the journaled and stored creation times are the same.
+        TaskResponse created = new TaskResponse(nextId(), task.getTitle(), task.getDescription(), task.getDueDate(),
+                task.isCompleted(), task.getCreatedAt().truncatedTo(ChronoUnit.MICROS), 0L);
+        // One lock for both, so the queue is in journal order and a batch ends at its highest sequence.
+        synchronized (queue) {
+            Pending pending = new Pending(journal.append(created), created, new CompletableFuture<>());
+            inFlight.put(created.id(), pending);
+            queue.add(pending);
+        }
+        return created;
+    }
+
+    /**
+     * The task with this id if it has been journaled but not stored yet, otherwise {@code null}.
+     */
+    public TaskResponse pending(Long id) {
+        Pending pending = inFlight.get(id);
+        return pending == null ? null : pending.task();
+    }
+
+    /**
+     * Blocks until the task with this id, if still pending, is in the database, so updates and
+     * deletes find the row.
+     */
+    public void awaitStored(Long id) {
+        Pending pending = inFlight.get(id);
+        if (pending == null) {
+            return;
+        }
+        try {
+            pending.stored().get(awaitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while task " + id + " was being stored", ex);
+        } catch (ExecutionException | TimeoutException ex) {
+            throw new IllegalStateException("Task " + id + " has not been stored yet", ex);
+        }
+    }
+
+    /**
+     * Replays what a previous run left in the journal, then starts the writer. Runs before the
+     * web server accepts requests.
+     */
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        journal = new TaskJournal(journalDir, Math.toIntExact(segmentSize.toBytes()));
+        List<TaskJournal.Entry> unstored = journal.recover(checkpoint());
+        for (int from = 0; from < unstored.size(); from += batchSize) {
+            List<TaskJournal.Entry> batch = unstored.subList(from, Math.min(from + batchSize, unstored.size()));
+            // The statistics and search index load from the table once the application is ready.
+            store(batch.stream().map(TaskJournal.Entry::task).toList(), batch.get(batch.size() - 1).sequence());
+        }
+        if (!unstored.isEmpty()) {
+            journal.release(unstored.get(unstored.size() - 1).sequence());
+        }
+        reserveIdsAboveStoredTasks();
+
+        running = true;
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "task-journal-flusher"));
+        flusher.scheduleWithFixedDelay(journal::force, fsyncInterval.toNanos(), fsyncInterval.toNanos(),
+                TimeUnit.NANOSECONDS);
+        drainer = new Thread(this::drain, "task-write-behind");
+        drainer.start();
+    }
+
+    /**
+     * Stores what is still queued and flushes the journal. Runs after the web server has stopped.
+     */
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            drainer.join(MAX_BACKOFF.toMillis() * 2);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        flusher.shutdown();
+        journal.close();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Below the web server's phase: started before it, stopped after it.
+        return 0;
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                if (!storeWithRetry(batch)) {
+                    // A later batch must not move the checkpoint past this one.
+                    return;
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    private boolean storeWithRetry(List<Pending> batch) throws InterruptedException {
+        long sequence = batch.get(batch.size() - 1).sequence();
+        List<TaskResponse> tasks = batch.stream().map(Pending::task).toList();
+        Duration backoff = Duration.ofMillis(50);
+        while (true) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    store(tasks, sequence);
+                    tasks.forEach(task -> eventPublisher.publishEvent(TaskChangedEvent.created(task)));
+                });
+                break;
+            } catch (RuntimeException ex) {
+                if (!running) {
+                    // Left in the journal; the next start replays it.
+                    log.warn("Giving up on {} journaled tasks until the next start", queue.size() + batch.size(), ex);
+                    return false;
+                }
+                log.warn("Storing {} journaled tasks failed, retrying in {}", batch.size(), backoff, ex);
+                Thread.sleep(backoff.toMillis());
+                backoff = backoff.multipliedBy(2).compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff.multipliedBy(2);
+            }
+        }
+        for (Pending pending : batch) {
+            inFlight.remove(pending.task().id());
+            pending.stored().complete(null);
+        }
+        journal.release(sequence);
+        return true;
+    }
+
+    private void store(List<TaskResponse> tasks, long sequence) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT, tasks, tasks.size(), (statement, task) -> {
+                statement.setLong(1, task.id());
+                statement.setString(2, task.title());
+                statement.setString(3, task.description());
+                statement.setDate(4, task.dueDate() == null ? null : Date.valueOf(task.dueDate()));
+                statement.setBoolean(5, task.completed());
+                statement.setTimestamp(6, Timestamp.valueOf(task.createdAt()));
+            });
+            jdbcTemplate.update(CHECKPOINT, sequence);
+        });
+    }
+
+    private long checkpoint() {
+        List<Long> rows = jdbcTemplate.queryForList(
+                "SELECT last_sequence FROM task_journal_checkpoint WHERE id = 1", Long.class);
+        return rows.isEmpty() ? 0 : rows.get(0);
+    }
+
+    /**
+     * Takes the first block of ids, moving the sequence past the stored tasks if it is behind
+     * them, as it can be when the database lost its last writes in the same crash. Taking a
+     * block before any request also keeps the sequence's initial value, which Hibernate treats
+     * specially, away from Hibernate.
+     */
+    private synchronized void reserveIdsAboveStoredTasks() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM tasks", Long.class);
+        reserveBlock();
+        if (maxId != null && nextId <= maxId) {
+            jdbcTemplate.execute("ALTER SEQUENCE tasks_seq RESTART WITH " + (maxId + Task.ID_ALLOCATION_SIZE));
+            reserveBlock();
+        }
+    }
+
+    private synchronized long nextId() {
+        if (nextId > lastId) {
+            reserveBlock();
+        }
+        return nextId++;
+    }
+
+    /**
+     * Claims the ids Hibernate's pooled optimizer would claim for the next sequence value:
+     * the {@link Task#ID_ALLOCATION_SIZE} ids ending at it.
+     */
+    private void reserveBlock() {
+        long value = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR tasks_seq", Long.class);
+        lastId = value;
+        nextId = Math.max(1, value - Task.ID_ALLOCATION_SIZE + 1);
+    }
+}
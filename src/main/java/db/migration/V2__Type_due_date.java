@@ -0,0 +1,112 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.List;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Turns the free-form {@code due_date} text column into a {@code DATE}. Text that is not a
+ * date in any accepted format keeps its original value in {@code due_date_legacy} and gets
+ * no due date, so nothing is lost and the rows can be fixed by hand afterwards.
+ *
+ * <p>The parsing rules are a copy of the ones the API applied when this migration was
+ * written. They must not follow later changes to the API, or the migration would convert
+ * the same data differently depending on when it runs.
+ */
+public class V2__Type_due_date extends BaseJavaMigration {
+    private static final Logger log = LoggerFactory.getLogger(V2__Type_due_date.class);
+    private static final int BATCH_SIZE = 1000;
+    private static final List<DateTimeFormatter> LEGACY_FORMATS = List.of(
+            DateTimeFormatter.ofPattern("uuuu/MM/dd").withResolverStyle(ResolverStyle.STRICT),
+            DateTimeFormatter.ofPattern("dd.MM.uuuu").withResolverStyle(ResolverStyle.STRICT));
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE tasks ADD COLUMN due_on DATE");
+        }
+
+        // Converted rows clear their text, so only unconvertible values are left in it.
+        int unconverted = 0;
+        try (Statement select = connection.createStatement();
+                PreparedStatement update = connection.prepareStatement(
+                        "UPDATE tasks SET due_on = ?, due_date = NULL WHERE id = ?")) {
+            select.setFetchSize(BATCH_SIZE);
+            int pending = 0;
+            try (ResultSet rows = select.executeQuery("SELECT id, due_date FROM tasks WHERE due_date IS NOT NULL")) {
+                while (rows.next()) {
+                    String text = rows.getString(2);
+                    LocalDate dueDate;
+                    try {
+                        dueDate = parse(text);
+                    } catch (DateTimeParseException ex) {
+                        log.warn("Task {} has due date '{}', which is not a date; kept in due_date_legacy",
+                                rows.getLong(1), text);
+                        unconverted++;
+                        continue;
+                    }
+                    update.setDate(1, dueDate == null ? null : Date.valueOf(dueDate));
+                    update.setLong(2, rows.getLong(1));
+                    update.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        update.executeBatch();
+                        pending = 0;
+                    }
+                }
+            }
+            if (pending > 0) {
+                update.executeBatch();
+            }
+        }
+        if (unconverted > 0) {
+            log.warn("{} due dates could not be converted and were kept in due_date_legacy", unconverted);
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP INDEX idx_tasks_due_date_created_at_id");
+            statement.execute("ALTER TABLE tasks ALTER COLUMN due_date RENAME TO due_date_legacy");
+            statement.execute("ALTER TABLE tasks ALTER COLUMN due_on RENAME TO due_date");
+            statement.execute("CREATE INDEX idx_tasks_due_date_created_at_id ON tasks (due_date, created_at, id)");
+            statement.execute("CREATE INDEX idx_tasks_completed_due_date_id ON tasks (completed, due_date, id)");
+        }
+    }
+
+    /**
+     * ISO {@code yyyy-MM-dd}, {@code yyyy/MM/dd}, {@code dd.MM.yyyy} or an ISO date-time, whose
+     * time part is dropped. Blank text means no due date.
+     */
+    private static LocalDate parse(String text) {
+        if (text.isBlank()) {
+            return null;
+        }
+        String value = text.trim();
+        if (value.length() > 10 && value.charAt(10) == 'T') {
+            value = value.substring(0, 10);
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException ex) {
+            for (DateTimeFormatter format : LEGACY_FORMATS) {
+                try {
+                    return LocalDate.parse(value, format);
+                } catch (DateTimeParseException ignored) {
+                    // try the next format
+                }
+            }
+            throw ex;
+        }
+    }
+}
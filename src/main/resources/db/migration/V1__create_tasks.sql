@@ -0,0 +1,16 @@
+CREATE SEQUENCE tasks_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE tasks (
+    id          BIGINT       NOT NULL,
+    title       VARCHAR(255),
+    description VARCHAR(255),
+    due_date    VARCHAR(255),
+    completed   BOOLEAN      NOT NULL,
+    created_at  TIMESTAMP(6),
+    version     BIGINT,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_tasks_created_at_id ON tasks (created_at, id);
+CREATE INDEX idx_tasks_completed_created_at_id ON tasks (completed, created_at, id);
+CREATE INDEX idx_tasks_due_date_created_at_id ON tasks (due_date, created_at, id);
@@ -0,0 +1,5 @@
+CREATE TABLE task_journal_checkpoint (
+    id            INTEGER NOT NULL,
+    last_sequence BIGINT  NOT NULL,
+    PRIMARY KEY (id)
+);
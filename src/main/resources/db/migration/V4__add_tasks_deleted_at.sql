@@ -0,0 +1,12 @@
+ALTER TABLE tasks ADD COLUMN deleted_at TIMESTAMP(6);
+
+-- Every index leads with deleted_at, so live rows (NULL) are one range and tombstones another
+DROP INDEX idx_tasks_created_at_id;
+DROP INDEX idx_tasks_completed_created_at_id;
+DROP INDEX idx_tasks_due_date_created_at_id;
+DROP INDEX idx_tasks_completed_due_date_id;
+
+CREATE INDEX idx_tasks_deleted_at_created_at_id ON tasks (deleted_at, created_at, id);
+CREATE INDEX idx_tasks_deleted_at_completed_created_at_id ON tasks (deleted_at, completed, created_at, id);
+CREATE INDEX idx_tasks_deleted_at_due_date_created_at_id ON tasks (deleted_at, due_date, created_at, id);
+CREATE INDEX idx_tasks_deleted_at_completed_due_date_id ON tasks (deleted_at, completed, due_date, id);
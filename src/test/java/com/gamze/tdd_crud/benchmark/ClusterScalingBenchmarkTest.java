@@ -0,0 +1,120 @@
+package com.gamze.tdd_crud.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.DatagramSocket;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.h2.tools.Server;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.gamze.tdd_crud.TddCrudApplication;
+
+/**
+ * Runs the same read/write mix against one node and against three nodes of the
+ * {@code cluster} profile sharing an H2 TCP server, with the load spread round-robin as a
+ * load balancer would. Each node gets a small Tomcat and connection pool, so a single node
+ * saturates. All nodes run in this JVM, so the gain is bounded by the cores available.
+ */
+@Tag("benchmark")
+public class ClusterScalingBenchmarkTest {
+    private static final int CLIENTS = 48;
+    private static final int REQUESTS_PER_CLIENT = 200;
+
+    @Test
+    void measureThroughputWithOneAndThreeNodes() throws Exception {
+        double single = measureThroughput(1);
+        double three = measureThroughput(3);
+
+        System.out.printf("1 node:  %.0f requests/s%n", single);
+        System.out.printf("3 nodes: %.0f requests/s (%.2fx)%n", three, three / single);
+    }
+
+    private double measureThroughput(int nodes) throws Exception {
+        int dbPort = freeTcpPort();
+        Server server = Server.createTcpServer("-tcpPort", String.valueOf(dbPort), "-ifNotExists").start();
+        List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+        try {
+            String url = "jdbc:h2:tcp://localhost:" + dbPort + "/mem:scaling" + nodes + ";DB_CLOSE_DELAY=-1";
+            int[] busPorts = new int[nodes];
+            for (int i = 0; i < nodes; i++) {
+                busPorts[i] = freeUdpPort();
+            }
+            List<Integer> ports = new ArrayList<>();
+            for (int i = 0; i < nodes; i++) {
+                List<String> peers = new ArrayList<>();
+                for (int j = 0; j < nodes; j++) {
+                    if (j != i) {
+                        peers.add("localhost:" + busPorts[j]);
+                    }
+                }
+                ConfigurableApplicationContext context = new SpringApplicationBuilder(TddCrudApplication.class)
+                        .profiles("cluster")
+                        .run("--spring.datasource.url=" + url,
+                                "--server.port=0",
+                                "--server.tomcat.threads.max=4",
+                                "--spring.datasource.hikari.maximum-pool-size=2",
+                                "--tasks.cluster.replica.maximum-pool-size=2",
+                                "--tasks.cluster.cache-bus.port=" + busPorts[i],
+                                "--tasks.cluster.cache-bus.peers=" + String.join(",", peers),
+                                "--spring.main.banner-mode=off",
+                                "--logging.level.root=WARN");
+                contexts.add(context);
+                ports.add(((WebServerApplicationContext) context).getWebServer().getPort());
+            }
+            HttpClient client = HttpClient.newHttpClient();
+
+            ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+            long start = System.nanoTime();
+            for (int c = 0; c < CLIENTS; c++) {
+                String base = "http://localhost:" + ports.get(c % nodes) + "/api/tasks";
+                pool.submit(() -> {
+                    for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                        // One write per ten requests; the reads list the newest tasks.
+                        HttpRequest request = i % 10 == 0
+                                ? HttpRequest.newBuilder(URI.create(base))
+                                        .header("Content-Type", "application/json")
+                                        .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"Scaling task\"}"))
+                                        .build()
+                                : HttpRequest.newBuilder(URI.create(base + "?limit=20")).build();
+                        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        assertThat(status).isBetween(200, 201);
+                    }
+                    return null;
+                });
+            }
+            pool.shutdown();
+            assertThat(pool.awaitTermination(5, TimeUnit.MINUTES)).isTrue();
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            return CLIENTS * REQUESTS_PER_CLIENT / seconds;
+        } finally {
+            contexts.forEach(ConfigurableApplicationContext::close);
+            server.stop();
+        }
+    }
+
+    private static int freeTcpPort() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static int freeUdpPort() throws Exception {
+        try (DatagramSocket socket = new DatagramSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.gamze.tdd_crud.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.gamze.tdd_crud.TddCrudApplication;
+import com.gamze.tdd_crud.repository.TaskRepository;
+import com.gamze.tdd_crud.service.TaskService;
+
+/**
+ * Export and stats reconciliation throughput over 200,000 tasks with the scans split into
+ * 1, 4 and 16 id ranges. The gain depends on the cores available to the readers. The
+ * database is file-backed so the rows do not live on the benchmark's small heap.
+ */
+@Tag("benchmark")
+public class PartitionedScanBenchmarkTest {
+    private static final int ROWS = 200_000;
+    private static final int ROUNDS = 5;
+
+    @Test
+    void measureScanThroughputByPartitions() {
+        for (int partitions : new int[] { 1, 4, 16 }) {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(TddCrudApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .run("--spring.datasource.url=jdbc:h2:file:./target/benchmark-db/scan" + partitions + ";DB_CLOSE_ON_EXIT=FALSE",
+                            "--spring.datasource.hikari.maximum-pool-size=20",
+                            "--tasks.scan.partitions=" + partitions,
+                            "--spring.main.banner-mode=off",
+                            "--logging.level.root=WARN");
+            try {
+                insert(context.getBean(JdbcTemplate.class));
+                TaskService taskService = context.getBean(TaskService.class);
+                TaskRepository taskRepository = context.getBean(TaskRepository.class);
+                taskService.exportTasks(task -> {});
+
+                long start = System.nanoTime();
+                for (int i = 0; i < ROUNDS; i++) {
+                    assertThat(taskService.exportTasks(task -> {})).isEqualTo(ROWS);
+                }
+                double exportSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+                start = System.nanoTime();
+                for (int i = 0; i < ROUNDS; i++) {
+                    assertThat(taskRepository.countTasks().total()).isEqualTo(ROWS);
+                }
+                double countMillis = (System.nanoTime() - start) / 1_000_000.0 / ROUNDS;
+
+                System.out.printf("%2d partitions: export %.0f rows/s, stats recount %.0f ms%n",
+                        partitions, ROWS * ROUNDS / exportSeconds, countMillis);
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("""
+                INSERT INTO tasks (id, title, completed, created_at, version)
+                SELECT X, 'Scan benchmark task ' || X, MOD(X, 4) = 0, CURRENT_TIMESTAMP, 0
+                FROM SYSTEM_RANGE(1, ?)
+                """, ROWS);
+    }
+}
@@ -0,0 +1,101 @@
+package com.gamze.tdd_crud.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.gamze.tdd_crud.TddCrudApplication;
+import com.gamze.tdd_crud.entity.Task;
+import com.gamze.tdd_crud.service.TaskService;
+import com.sun.management.OperatingSystemMXBean;
+
+/**
+ * Sends the same single-task reads and 50-task listings to a server with compression, HTTP/2
+ * and the task body cache switched off, then to one with the defaults. Reports the response
+ * body bytes the client received and the process CPU time per request. Client and server share
+ * this JVM, so the CPU figures include the client's share, which is the same for both.
+ */
+@Tag("benchmark")
+public class ResponseEncodingBenchmarkTest {
+    private static final int TASKS = 200;
+    private static final int REQUESTS = 5_000;
+    private static final String DESCRIPTION = "Reconcile the quarterly invoices against the ledger and flag "
+            + "every mismatch for review by finance before the books are closed for the month.";
+
+    @Test
+    void measureBytesAndCpuPerRequest() throws Exception {
+        run("plain", "--server.compression.enabled=false", "--server.http2.enabled=false",
+                "--tasks.http.body-cache-size=0");
+        run("encoded");
+    }
+
+    private void run(String label, String... settings) throws Exception {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:encoding" + label + ";DB_CLOSE_DELAY=-1",
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"));
+        args.addAll(List.of(settings));
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TddCrudApplication.class)
+                .run(args.toArray(String[]::new))) {
+            TaskService taskService = context.getBean(TaskService.class);
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < TASKS; i++) {
+                Task task = new Task();
+                task.setTitle("Encoded task " + i);
+                task.setDescription(DESCRIPTION);
+                ids.add(taskService.createTask(task).id());
+            }
+            String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort()
+                    + "/api/tasks";
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+
+            Result single = measure(client, i -> base + "/" + ids.get(i % TASKS));
+            Result listing = measure(client, i -> base + "?limit=50");
+
+            System.out.printf("%-8s GET /{id}: %5.0f bytes, %6.1f us CPU (%s)%n", label,
+                    single.bytes, single.cpuMicros, single.version);
+            System.out.printf("%-8s listing:  %5.0f bytes, %6.1f us CPU (%s)%n", label,
+                    listing.bytes, listing.cpuMicros, listing.version);
+        }
+    }
+
+    private static Result measure(HttpClient client, IntFunction<String> uri) throws Exception {
+        OperatingSystemMXBean os = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        HttpClient.Version version = null;
+        for (int i = 0; i < REQUESTS / 5; i++) {
+            version = send(client, uri.apply(i)).version();
+        }
+        long bytes = 0;
+        long cpuStart = os.getProcessCpuTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            HttpResponse<byte[]> response = send(client, uri.apply(i));
+            assertThat(response.statusCode()).isEqualTo(200);
+            bytes += response.body().length;
+        }
+        double cpuMicros = (os.getProcessCpuTime() - cpuStart) / 1_000.0 / REQUESTS;
+        return new Result((double) bytes / REQUESTS, cpuMicros, version);
+    }
+
+    private static HttpResponse<byte[]> send(HttpClient client, String uri) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(uri)).header("Accept-Encoding", "gzip").build();
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private record Result(double bytes, double cpuMicros, HttpClient.Version version) {
+    }
+}
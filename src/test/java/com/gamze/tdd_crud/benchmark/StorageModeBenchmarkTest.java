@@ -0,0 +1,83 @@
+package com.gamze.tdd_crud.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.gamze.tdd_crud.TddCrudApplication;
+import com.gamze.tdd_crud.entity.Task;
+import com.gamze.tdd_crud.service.TaskService;
+
+/**
+ * Cold-start time and batch write throughput of the default in-memory database versus
+ * the file-backed {@code prod} profile. The file run is started twice: once on an empty
+ * directory (migrations applied) and once on the existing database (migrations skipped).
+ */
+@Tag("benchmark")
+public class StorageModeBenchmarkTest {
+    private static final int ROWS = 50_000;
+    private static final Path DATA_DIR = Path.of("target", "benchmark-db");
+
+    @Test
+    void compareInMemoryAndFileBackedStorage() throws IOException {
+        deleteRecursively(DATA_DIR);
+        String fileUrl = "spring.datasource.url=jdbc:h2:file:./" + DATA_DIR + "/tasks"
+                + ";CACHE_SIZE=131072;WRITE_DELAY=500;DB_CLOSE_ON_EXIT=FALSE";
+
+        run("JVM warm-up", new String[0]);
+        run("in-memory (create-drop)", new String[0]);
+        run("file, first start", new String[] { "prod" }, fileUrl);
+        run("file, warm restart", new String[] { "prod" }, fileUrl);
+    }
+
+    private static void run(String label, String[] profiles, String... properties) {
+        long start = System.nanoTime();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TddCrudApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(profiles)
+                .properties(properties)
+                .properties("spring.jpa.show-sql=false", "spring.main.banner-mode=off", "logging.level.root=WARN")
+                .run();
+        double startupMillis = (System.nanoTime() - start) / 1_000_000.0;
+        try {
+            TaskService taskService = context.getBean(TaskService.class);
+            start = System.nanoTime();
+            for (int offset = 0; offset < ROWS; offset += TaskService.MAX_BATCH_SIZE) {
+                List<Task> batch = new ArrayList<>(TaskService.MAX_BATCH_SIZE);
+                for (int i = 0; i < TaskService.MAX_BATCH_SIZE; i++) {
+                    Task task = new Task();
+                    task.setTitle("Storage benchmark " + (offset + i));
+                    batch.add(task);
+                }
+                assertThat(taskService.createTasks(batch)).hasSize(batch.size());
+            }
+            double rowsPerSecond = ROWS / ((System.nanoTime() - start) / 1_000_000_000.0);
+            System.out.printf("%-25s startup %6.0f ms, %8.0f rows/s%n", label, startupMillis, rowsPerSecond);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
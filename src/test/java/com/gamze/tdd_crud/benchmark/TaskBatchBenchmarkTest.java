@@ -0,0 +1,71 @@
+package com.gamze.tdd_crud.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.gamze.tdd_crud.dto.BatchItemResult;
+import com.gamze.tdd_crud.entity.Task;
+import com.gamze.tdd_crud.repository.TaskRepository;
+import com.gamze.tdd_crud.service.TaskService;
+
+/**
+ * Compares insert throughput of the single-item path with the batch path.
+ * Run with {@code ./mvnw test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class TaskBatchBenchmarkTest {
+    private static final int ROWS = 20_000;
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Test
+    void compareSingleAndBatchInsertThroughput() {
+        taskRepository.deleteAllInBatch();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ROWS; i++) {
+            taskService.createTask(newTask(i));
+        }
+        double singleRowsPerSecond = rowsPerSecond(start);
+
+        start = System.nanoTime();
+        for (int offset = 0; offset < ROWS; offset += BATCH_SIZE) {
+            List<Task> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = offset; i < offset + BATCH_SIZE; i++) {
+                batch.add(newTask(i));
+            }
+            List<BatchItemResult> results = taskService.createTasks(batch);
+            assertThat(results).allMatch(result -> result.status() == BatchItemResult.Status.CREATED);
+        }
+        double batchRowsPerSecond = rowsPerSecond(start);
+
+        System.out.printf("single-item inserts: %.0f rows/s%n", singleRowsPerSecond);
+        System.out.printf("batch inserts:       %.0f rows/s (%.1fx)%n",
+                batchRowsPerSecond, batchRowsPerSecond / singleRowsPerSecond);
+        assertThat(taskRepository.count()).isEqualTo(2L * ROWS);
+    }
+
+    private static Task newTask(int i) {
+        Task task = new Task();
+        task.setTitle("Benchmark task " + i);
+        task.setDescription("Generated by TaskBatchBenchmarkTest");
+        return task;
+    }
+
+    private static double rowsPerSecond(long startNanos) {
+        return ROWS / ((System.nanoTime() - startNanos) / 1_000_000_000.0);
+    }
+}
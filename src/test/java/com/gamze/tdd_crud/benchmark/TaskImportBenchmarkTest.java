@@ -0,0 +1,102 @@
+package com.gamze.tdd_crud.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.gamze.tdd_crud.repository.TaskRepository;
+
+/**
+ * Streams a synthetic NDJSON file into the import endpoint while the benchmark profile caps the
+ * heap at 256 MB. The payload is generated on the fly, so neither side ever holds it in memory.
+ * Size defaults to 2 GiB and can be raised with {@code -Dbenchmark.import.bytes}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/benchmark-db/import;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+public class TaskImportBenchmarkTest {
+    private static final long BYTES = Long.getLong("benchmark.import.bytes", 2L << 30);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Test
+    void importSyntheticFileWithFlatHeap() throws Exception {
+        SyntheticNdjson body = new SyntheticNdjson(BYTES);
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long start = System.nanoTime();
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tasks/import"))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofInputStream(() -> body))
+                .build();
+        // Tomcat answers an h2c upgrade request whose body is over 4 KB with 413, so stay on HTTP/1.1.
+        HttpResponse<String> response = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()
+                .send(request, HttpResponse.BodyHandlers.ofString());
+
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        System.out.printf("imported %d rows (%d MB) in %.1f s (%.0f rows/s), heap %d MB of %d MB%n",
+                body.rows, body.produced >> 20, seconds, body.rows / seconds,
+                memory.getHeapMemoryUsage().getUsed() >> 20, memory.getHeapMemoryUsage().getMax() >> 20);
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).contains("\"rejected\":0");
+        assertThat(taskRepository.count()).isEqualTo(body.rows);
+    }
+
+    /** Produces NDJSON task lines until the requested number of bytes has been emitted. */
+    private static final class SyntheticNdjson extends InputStream {
+        private final long limit;
+        private long produced;
+        private long rows;
+        private byte[] line = new byte[0];
+        private int position;
+
+        SyntheticNdjson(long limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (position == line.length) {
+                if (produced >= limit) {
+                    return -1;
+                }
+                rows++;
+                line = ("{\"title\":\"Imported task " + rows + "\",\"description\":\"Synthetic row number "
+                        + rows + "\",\"completed\":" + (rows % 2 == 0) + "}\n").getBytes(StandardCharsets.UTF_8);
+                position = 0;
+            }
+            int count = Math.min(length, line.length - position);
+            System.arraycopy(line, position, buffer, offset, count);
+            position += count;
+            produced += count;
+            return count;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.gamze.tdd_crud.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.gamze.tdd_crud.dto.TaskSearchPage;
+import com.gamze.tdd_crud.search.TaskSearchIndex;
+import com.gamze.tdd_crud.service.TaskService;
+
+/**
+ * Compares search latency at a million tasks between the inverted index and a
+ * {@code LIKE '%term%'} scan over title and description. Both return the first page of
+ * 20 rows; the index ranks them, the scan returns whatever it finds first.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/benchmark-db/search;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+public class TaskSearchBenchmarkTest {
+    private static final int ROWS = 1_000_000;
+    private static final int ITERATIONS = 50;
+    private static final long WARMUP_NANOS = 3_000_000_000L;
+    // From a handful of matches to a twentieth of the table, plus a two-term query.
+    private static final List<String> QUERIES = List.of("customer4242", "topic42", "region7", "topic42 region2");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskSearchIndex searchIndex;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Test
+    void compareIndexWithLikeScan() {
+        jdbcTemplate.update("""
+                INSERT INTO tasks (id, title, description, completed, created_at, version)
+                SELECT X, 'Review topic' || MOD(X, 1000),
+                       'Report for customer' || MOD(X, 50000) || ' in region' || MOD(X, 20),
+                       FALSE, CURRENT_TIMESTAMP, 0
+                FROM SYSTEM_RANGE(1, ?)
+                """, ROWS);
+
+        long start = System.nanoTime();
+        searchIndex.rebuild();
+        System.out.printf("indexed %d tasks in %d ms%n", searchIndex.size(), (System.nanoTime() - start) / 1_000_000);
+        assertThat(searchIndex.size()).isEqualTo(ROWS);
+
+        for (String query : QUERIES) {
+            TaskSearchPage page = taskService.searchTasks(query, 0, 20);
+            assertThat(page.items()).isNotEmpty();
+
+            String[] terms = query.split(" ");
+            double indexMillis = medianMillis(() -> searchIndex.search(query, 20));
+            double serviceMillis = medianMillis(() -> taskService.searchTasks(query, 0, 20));
+            double likeMillis = medianMillis(() -> like(terms));
+            System.out.printf("%-16s %7d hits  index %8.3f ms  index+rows %8.3f ms  LIKE %8.3f ms%n",
+                    query, page.total(), indexMillis, serviceMillis, likeMillis);
+        }
+    }
+
+    private List<Long> like(String[] terms) {
+        StringBuilder sql = new StringBuilder("SELECT id FROM tasks WHERE ");
+        Object[] args = new Object[terms.length * 2];
+        for (int i = 0; i < terms.length; i++) {
+            sql.append(i == 0 ? "" : " OR ").append("LOWER(title) LIKE ? OR LOWER(description) LIKE ?");
+            args[2 * i] = args[2 * i + 1] = "%" + terms[i] + "%";
+        }
+        return jdbcTemplate.queryForList(sql.append(" LIMIT 20").toString(), Long.class, args);
+    }
+
+    private static double medianMillis(Supplier<?> query) {
+        // Let the JIT compile the Hibernate and H2 paths before sampling.
+        long warmupEnd = System.nanoTime() + WARMUP_NANOS;
+        while (System.nanoTime() < warmupEnd) {
+            query.get();
+        }
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            query.get();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[ITERATIONS / 2] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,93 @@
+package com.gamze.tdd_crud.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.gamze.tdd_crud.entity.Task;
+import com.gamze.tdd_crud.repository.TaskRepository;
+import com.gamze.tdd_crud.service.TaskService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Compares the single-statement update/delete path with the previous load-then-write
+ * path, reporting JDBC statements per operation and operations per second.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class TaskWriteBenchmarkTest {
+    private static final int OPERATIONS = 5_000;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void compareStatementsPerUpdateAndDelete() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Long> ids = seed();
+
+        statistics.clear();
+        long start = System.nanoTime();
+        for (Long id : ids) {
+            Task existing = taskRepository.findById(id).orElseThrow();
+            existing.setTitle("Updated by load-then-save");
+            taskRepository.save(existing);
+        }
+        report("load-then-save update", statistics, start);
+
+        Task update = new Task();
+        update.setTitle("Updated in one statement");
+        statistics.clear();
+        start = System.nanoTime();
+        for (Long id : ids) {
+            taskService.updateTask(id, update, null);
+        }
+        long singleStatementUpdates = report("single-statement update", statistics, start);
+
+        statistics.clear();
+        start = System.nanoTime();
+        for (Long id : ids) {
+            taskService.deleteTask(id);
+        }
+        long singleStatementDeletes = report("single-statement delete", statistics, start);
+
+        assertThat(singleStatementUpdates).isEqualTo(OPERATIONS);
+        assertThat(singleStatementDeletes).isEqualTo(OPERATIONS);
+    }
+
+    private List<Long> seed() {
+        List<Task> tasks = new ArrayList<>(OPERATIONS);
+        for (int i = 0; i < OPERATIONS; i++) {
+            Task task = new Task();
+            task.setTitle("Benchmark task " + i);
+            tasks.add(task);
+        }
+        return taskRepository.saveAll(tasks).stream().map(Task::getId).toList();
+    }
+
+    private static long report(String label, Statistics statistics, long startNanos) {
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        long statements = statistics.getPrepareStatementCount();
+        System.out.printf("%-25s %.2f statements/op, %.0f ops/s%n",
+                label, (double) statements / OPERATIONS, OPERATIONS / seconds);
+        return statements;
+    }
+}
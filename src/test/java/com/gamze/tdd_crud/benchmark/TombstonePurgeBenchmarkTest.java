@@ -0,0 +1,86 @@
+package com.gamze.tdd_crud.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.gamze.tdd_crud.dto.TaskFilter;
+import com.gamze.tdd_crud.purge.TombstonePurger;
+import com.gamze.tdd_crud.service.TaskService;
+
+/**
+ * Measures purge throughput and the first-page latency of the live listing while half of the
+ * table is tombstones. Run with {@code ./mvnw test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:purgebench;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "tasks.soft-delete.enabled=true",
+        "tasks.soft-delete.purge-batch-size=500",
+        "tasks.soft-delete.purge-pause=0ms"
+})
+public class TombstonePurgeBenchmarkTest {
+    private static final int ROWS = 100_000;
+    private static final int LIST_REQUESTS = 1_000;
+
+    @Autowired
+    private TombstonePurger purger;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void measurePurgeThroughput() throws InterruptedException {
+        LocalDateTime deletedAt = LocalDateTime.now().minusDays(1);
+        // Tombstones are created first, so without the live-row indexes the first page would
+        // have to step over all of them.
+        insert(1, ROWS, deletedAt);
+        insert(ROWS + 1, ROWS, null);
+
+        double withTombstones = listMicros();
+
+        long start = System.nanoTime();
+        long purged = purger.purge(deletedAt.plusSeconds(1), Instant.MAX);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        double withoutTombstones = listMicros();
+
+        System.out.printf("purge:      %d tombstones in %.2f s (%.0f rows/s)%n", purged, seconds, purged / seconds);
+        System.out.printf("first page: %.0f us with tombstones, %.0f us after purge%n",
+                withTombstones, withoutTombstones);
+        assertThat(purged).isEqualTo(ROWS);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks", Long.class)).isEqualTo(ROWS);
+    }
+
+    private double listMicros() {
+        long start = System.nanoTime();
+        for (int i = 0; i < LIST_REQUESTS; i++) {
+            assertThat(taskService.listTasks(TaskFilter.none(), null, 20).items()).hasSize(20);
+        }
+        return (System.nanoTime() - start) / 1_000.0 / LIST_REQUESTS;
+    }
+
+    private void insert(long firstId, int count, LocalDateTime deletedAt) {
+        Timestamp deleted = deletedAt == null ? null : Timestamp.valueOf(deletedAt);
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] { firstId + i, "Purge benchmark task " + i, deleted });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tasks (id, title, completed, created_at, version, deleted_at) "
+                + "VALUES (?, ?, FALSE, CURRENT_TIMESTAMP, 0, ?)", rows);
+    }
+}
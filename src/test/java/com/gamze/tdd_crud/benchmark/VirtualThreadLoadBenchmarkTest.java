@@ -0,0 +1,149 @@
+package com.gamze.tdd_crud.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.gamze.tdd_crud.TddCrudApplication;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Boots the application once on platform threads and once with the {@code virtual}
+ * profile and compares p99 latency of a DB-bound endpoint under the same concurrency.
+ * The Tomcat pool is kept small so the platform-thread mode saturates first. Every
+ * statement waits {@link #DB_LATENCY_MILLIS} first, standing in for a slow database.
+ */
+@Tag("benchmark")
+public class VirtualThreadLoadBenchmarkTest {
+    private static final int CLIENTS = 200;
+    private static final int REQUESTS_PER_CLIENT = 50;
+    private static final long DB_LATENCY_MILLIS = 20;
+
+    @Test
+    void comparePlatformAndVirtualThreadLatency() throws Exception {
+        if (Runtime.version().feature() < 21) {
+            System.out.println("Virtual threads need Java 21; the 'virtual' run only measures the bulkhead");
+        }
+        long platformP99 = measureP99();
+        long virtualP99 = measureP99("virtual");
+
+        System.out.printf("platform threads p99: %d ms%n", platformP99);
+        System.out.printf("virtual threads p99:  %d ms%n", virtualP99);
+    }
+
+    private long measureP99(String... profiles) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TddCrudApplication.class)
+                .profiles(profiles)
+                .properties("server.port=0", "server.tomcat.threads.max=16")
+                // Added before the application's own post-processors, so the delay sits inside the bulkhead.
+                .initializers(application -> application.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+                    @Override
+                    public Object postProcessAfterInitialization(Object bean, String beanName) {
+                        return bean instanceof HikariDataSource pool ? slow(pool) : bean;
+                    }
+                }))
+                .run();
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            // One connection per client, so each request holds a Tomcat thread; over HTTP/2 they
+            // would share one connection and its 100-stream limit.
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            seed(client, port);
+
+            List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+            ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+            HttpRequest list = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tasks?limit=100"))
+                    .build();
+            List<Future<?>> results = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                results.add(clients.submit(() -> {
+                    for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                        long start = System.nanoTime();
+                        HttpResponse<Void> response = client.send(list, HttpResponse.BodyHandlers.discarding());
+                        latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                        assertThat(response.statusCode()).isEqualTo(200);
+                    }
+                    return null;
+                }));
+            }
+            clients.shutdown();
+            assertThat(clients.awaitTermination(5, TimeUnit.MINUTES)).isTrue();
+            // Rethrows the first failed request or assertion, which would otherwise be lost.
+            for (Future<?> result : results) {
+                result.get();
+            }
+
+            List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            return sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * Wraps the pool so that every statement a connection prepares first sleeps for
+     * {@link #DB_LATENCY_MILLIS}, while the connection is held.
+     */
+    private static DataSource slow(DataSource pool) {
+        return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[] { DataSource.class },
+                (proxy, method, args) -> {
+                    Object result = invoke(pool, method, args);
+                    return result instanceof Connection connection ? slow(connection) : result;
+                });
+    }
+
+    private static Connection slow(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("prepare") || method.getName().equals("createStatement")) {
+                        Thread.sleep(DB_LATENCY_MILLIS);
+                    }
+                    return invoke(connection, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private static void seed(HttpClient client, int port) throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 500; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"title\":\"Load task ").append(i).append("\"}");
+        }
+        body.append(']');
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tasks/batch"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+        assertThat(client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode()).isEqualTo(200);
+    }
+}
@@ -0,0 +1,86 @@
+package com.gamze.tdd_crud.budget;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+public class StatementBudgetFilterTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldFailRequestsOverBudget() {
+        StatementBudgetFilter filter = new StatementBudgetFilter(meterRegistry, true, true);
+
+        assertThatThrownBy(() -> send(filter, "twoStatements", 3))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("GET /api/tasks/{id} issued 3 SQL statements, its budget is 2");
+        assertThat(meterRegistry.get("tasks.statement.budget.exceeded").tag("endpoint", "GET /api/tasks/{id}")
+                .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldOnlyCountWhenNotFailing() throws Exception {
+        StatementBudgetFilter filter = new StatementBudgetFilter(meterRegistry, true, false);
+
+        assertThat(send(filter, "twoStatements", 3).getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("tasks.statement.budget.exceeded").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldPassRequestsWithinBudgetOrWithoutOne() throws Exception {
+        StatementBudgetFilter filter = new StatementBudgetFilter(meterRegistry, true, true);
+
+        send(filter, "twoStatements", 2);
+        send(filter, "unbudgeted", 100);
+
+        assertThat(meterRegistry.find("tasks.statement.budget.exceeded").counter()).isNull();
+    }
+
+    @Test
+    void shouldIgnoreBudgetsWhenDisabled() throws Exception {
+        StatementBudgetFilter filter = new StatementBudgetFilter(meterRegistry, false, true);
+
+        send(filter, "twoStatements", 3);
+
+        assertThat(meterRegistry.find("tasks.statement.budget.exceeded").counter()).isNull();
+    }
+
+    private static MockHttpServletResponse send(StatementBudgetFilter filter, String handler, int statements)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+                new HandlerMethod(new Endpoints(), Endpoints.class.getMethod(handler)));
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/tasks/{id}");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        StatementCounter counter = new StatementCounter();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                for (int i = 0; i < statements; i++) {
+                    counter.inspect("select 1");
+                }
+            }
+        }));
+        return response;
+    }
+
+    static class Endpoints {
+        @StatementBudget(2)
+        public void twoStatements() {
+        }
+
+        public void unbudgeted() {
+        }
+    }
+}
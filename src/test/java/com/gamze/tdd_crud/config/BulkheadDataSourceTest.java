@@ -0,0 +1,60 @@
+package com.gamze.tdd_crud.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+public class BulkheadDataSourceTest {
+
+    @Test
+    void shouldReleasePermitWhenConnectionIsClosed() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        given(target.getConnection()).willReturn(connection);
+        BulkheadDataSource dataSource = new BulkheadDataSource(target, 2, Duration.ofMillis(10));
+
+        Connection borrowed = dataSource.getConnection();
+        assertThat(dataSource.availablePermits()).isEqualTo(1);
+
+        borrowed.close();
+        borrowed.close();
+
+        verify(connection, times(2)).close();
+        assertThat(dataSource.availablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldTimeOutWhenAllPermitsAreTaken() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        given(target.getConnection()).willReturn(mock(Connection.class));
+        BulkheadDataSource dataSource = new BulkheadDataSource(target, 1, Duration.ofMillis(10));
+
+        dataSource.getConnection();
+
+        assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessageContaining("waiting for a database permit");
+    }
+
+    @Test
+    void shouldReleasePermitWhenPoolFails() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        given(target.getConnection()).willThrow(new SQLException("pool exhausted"));
+        BulkheadDataSource dataSource = new BulkheadDataSource(target, 1, Duration.ofMillis(10));
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool exhausted");
+        assertThat(dataSource.availablePermits()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,38 @@
+package com.gamze.tdd_crud.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+public class VirtualThreadConfigTest {
+    private final BeanPostProcessor postProcessor =
+            VirtualThreadConfig.bulkheadDataSourcePostProcessor(10, Duration.ofSeconds(2));
+
+    @Test
+    void shouldWrapPoolsButNotProxiesOverThem() {
+        DataSource primary = mock(DataSource.class);
+        DataSource replica = mock(DataSource.class);
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+        routing.setReadOnlyDataSource(replica);
+
+        assertThat(postProcessor.postProcessAfterInitialization(primary, "primaryDataSource"))
+                .isInstanceOf(BulkheadDataSource.class);
+        assertThat(postProcessor.postProcessAfterInitialization(replica, "replicaDataSource"))
+                .isInstanceOf(BulkheadDataSource.class);
+        assertThat(postProcessor.postProcessAfterInitialization(routing, "dataSource")).isSameAs(routing);
+    }
+
+    @Test
+    void shouldNotWrapABulkheadAgain() {
+        BulkheadDataSource bulkhead = new BulkheadDataSource(mock(DataSource.class), 10, Duration.ofSeconds(2));
+
+        assertThat(postProcessor.postProcessAfterInitialization(bulkhead, "dataSource")).isSameAs(bulkhead);
+    }
+}
@@ -1,27 +1,60 @@
 package com.gamze.tdd_crud.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doThrow;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import static org.mockito.BDDMockito.willAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.gamze.tdd_crud.dto.BatchItemResult;
+import com.gamze.tdd_crud.dto.BatchItemResult.Status;
+import com.gamze.tdd_crud.dto.ImportSummary;
+import com.gamze.tdd_crud.dto.TaskFilter;
+import com.gamze.tdd_crud.dto.TaskPage;
+import com.gamze.tdd_crud.dto.TaskResponse;
+import com.gamze.tdd_crud.dto.TaskSearchPage;
+import com.gamze.tdd_crud.dto.TaskStats;
 import com.gamze.tdd_crud.entity.Task;
+import com.gamze.tdd_crud.exception.TaskNotFoundException;
+import com.gamze.tdd_crud.exception.TaskVersionMismatchException;
+import com.gamze.tdd_crud.feed.TaskChangeFeed;
+import com.gamze.tdd_crud.service.TaskImportService;
 import com.gamze.tdd_crud.service.TaskService;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @WebMvcTest(TaskController.class)
+@Import(SimpleMeterRegistry.class)
 public class TaskControllerTest {
     @Autowired
     private MockMvc mockMvc;
@@ -29,13 +62,19 @@ public class TaskControllerTest {
     @MockitoBean
     private TaskService taskService;
 
+    @MockitoBean
+    private TaskImportService taskImportService;
+
+    @MockitoBean
+    private TaskChangeFeed changeFeed;
+
     @Test
     void shouldCreateTask() throws Exception {
         Task task = new Task();
         task.setId(1L);
         task.setTitle("New Task");
 
-        given(taskService.createTask(any(Task.class))).willReturn(task);
+        given(taskService.createTask(any(Task.class))).willReturn(TaskResponse.from(task));
 
         mockMvc.perform(post("/api/tasks")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -45,6 +84,22 @@ public class TaskControllerTest {
                 .andExpect(jsonPath("$.title").value("New Task"));
     }
 
+    @Test
+    void shouldAcceptTaskInWriteBehindMode() throws Exception {
+        Task task = new Task();
+        task.setId(1L);
+        task.setTitle("New Task");
+
+        given(taskService.createTask(any(Task.class))).willReturn(TaskResponse.from(task));
+        given(taskService.isWriteBehindEnabled()).willReturn(true);
+
+        mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"New Task\"}"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value(1));
+    }
+
     @Test
     void shouldReturn400WhenTitleIsNull() throws Exception {
         given(taskService.createTask(any(Task.class)))
@@ -62,7 +117,7 @@ public class TaskControllerTest {
         task.setId(1L);
         task.setTitle("New Task");
 
-        given(taskService.getTaskById(1L)).willReturn(task);
+        given(taskService.getTaskById(1L)).willReturn(TaskResponse.from(task));
 
         mockMvc.perform(get("/api/tasks/1")
                 .contentType(MediaType.APPLICATION_JSON))
@@ -71,14 +126,217 @@ public class TaskControllerTest {
                 .andExpect(jsonPath("$.title").value("New Task"));
     }
 
+    @Test
+    void shouldReturnETagAndHonourIfNoneMatch() throws Exception {
+        Task task = new Task();
+        task.setId(1L);
+        task.setTitle("New Task");
+        ReflectionTestUtils.setField(task, "version", 3L);
+
+        given(taskService.getTaskById(1L)).willReturn(TaskResponse.from(task));
+
+        mockMvc.perform(get("/api/tasks/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""));
+
+        mockMvc.perform(get("/api/tasks/1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues("ETag", "\"3\""))
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void shouldReserializeTaskOnlyWhenItChanges() throws Exception {
+        Task task = new Task();
+        task.setId(1L);
+        task.setTitle("First Title");
+        ReflectionTestUtils.setField(task, "version", 1L);
+        Task renamed = new Task();
+        renamed.setId(1L);
+        renamed.setTitle("Second Title");
+        ReflectionTestUtils.setField(renamed, "version", 2L);
+
+        given(taskService.getTaskById(1L)).willReturn(TaskResponse.from(task), TaskResponse.from(task),
+                TaskResponse.from(renamed));
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/tasks/1"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(header().string("Cache-Control", "no-cache"))
+                    .andExpect(jsonPath("$.title").value("First Title"));
+        }
+        mockMvc.perform(get("/api/tasks/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2\""))
+                .andExpect(jsonPath("$.title").value("Second Title"));
+    }
+
+    @Test
+    void shouldMarkListingsForRevalidation() throws Exception {
+        given(taskService.listTasks(any(TaskFilter.class), isNull(), eq(20))).willReturn(new TaskPage(List.of(), null));
+
+        mockMvc.perform(get("/api/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache"));
+    }
+
+    @Test
+    void shouldPassIfMatchVersionToService() throws Exception {
+        Task updatedTask = new Task();
+        updatedTask.setId(1L);
+        updatedTask.setTitle("Updated Task");
+        ReflectionTestUtils.setField(updatedTask, "version", 4L);
+
+        given(taskService.updateTask(eq(1L), any(Task.class), eq(3L))).willReturn(TaskResponse.from(updatedTask));
+
+        mockMvc.perform(put("/api/tasks/1")
+                .header("If-Match", "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Updated Task\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+    }
+
+    @Test
+    void shouldReturn412WhenIfMatchIsStale() throws Exception {
+        given(taskService.updateTask(eq(1L), any(Task.class), eq(2L)))
+                .willThrow(new TaskVersionMismatchException(1L));
+
+        mockMvc.perform(put("/api/tasks/1")
+                .header("If-Match", "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Updated Task\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void shouldReturn412WhenIfMatchIsWeak() throws Exception {
+        mockMvc.perform(put("/api/tasks/1")
+                .header("If-Match", "W/\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Updated Task\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void shouldListTasks() throws Exception {
+        Task task = new Task();
+        task.setId(1L);
+        task.setTitle("New Task");
+
+        given(taskService.listTasks(eq(new TaskFilter(true, LocalDate.of(2024, 12, 20), null, null)), isNull(), eq(20)))
+                .willReturn(new TaskPage(List.of(TaskResponse.from(task)), "next"));
+
+        mockMvc.perform(get("/api/tasks")
+                .param("completed", "true")
+                .param("dueDate", "2024-12-20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    void shouldReturnStats() throws Exception {
+        given(taskService.getStats(30)).willReturn(
+                new TaskStats(5, 2, 3, 1, Map.of(LocalDate.of(2025, 3, 10), 4L)));
+
+        mockMvc.perform(get("/api/tasks/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(5))
+                .andExpect(jsonPath("$.open").value(3))
+                .andExpect(jsonPath("$.overdue").value(1))
+                .andExpect(jsonPath("$.createdPerDay['2025-03-10']").value(4));
+    }
+
+    @Test
+    void shouldResumeChangeStreamFromLastEventId() throws Exception {
+        given(changeFeed.subscribe(41L)).willReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/tasks/changes")
+                .header("Last-Event-ID", "41")
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    void shouldListTasksInDueDateRangeAcceptingLegacyFormats() throws Exception {
+        TaskFilter filter = new TaskFilter(null, null, LocalDate.of(2025, 1, 1), LocalDate.of(2024, 12, 14));
+        given(taskService.listTasks(eq(filter), isNull(), eq(20))).willReturn(new TaskPage(List.of(), null));
+
+        mockMvc.perform(get("/api/tasks")
+                .param("dueBefore", "2025-01-01")
+                .param("dueAfter", "14.12.2024"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldReturn400WhenDueDateParameterIsInvalid() throws Exception {
+        mockMvc.perform(get("/api/tasks").param("dueBefore", "next week"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("Invalid due date 'next week', expected yyyy-MM-dd"));
+    }
+
+    @Test
+    void shouldReturn400WhenBodyHasInvalidDueDate() throws Exception {
+        mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Task\", \"dueDate\":\"someday\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value(containsString("expected yyyy-MM-dd")));
+    }
+
+    @Test
+    void shouldListOverdueTasks() throws Exception {
+        Task task = new Task();
+        task.setId(3L);
+        task.setDueDate(LocalDate.of(2020, 1, 1));
+        given(taskService.listOverdueTasks(null, 20)).willReturn(new TaskPage(List.of(TaskResponse.from(task)), null));
+
+        mockMvc.perform(get("/api/tasks/overdue"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].dueDate").value("2020-01-01"));
+    }
+
+    @Test
+    void shouldReturn400WhenListingWithInvalidCursor() throws Exception {
+        given(taskService.listTasks(any(TaskFilter.class), eq("bogus"), eq(20)))
+                .willThrow(new IllegalArgumentException("Invalid cursor: bogus"));
+
+        mockMvc.perform(get("/api/tasks").param("cursor", "bogus"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void shouldReturn404WhenTaskNotFound() throws Exception {
         given(taskService.getTaskById(1L))
-                .willThrow(new RuntimeException("Task not found with id: 1"));
+                .willThrow(new TaskNotFoundException(1L));
 
         mockMvc.perform(get("/api/tasks/1")
                 .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isNotFound());
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.title").value("Not Found"))
+                .andExpect(jsonPath("$.detail").value("Task not found with id: 1"))
+                .andExpect(jsonPath("$.properties").doesNotExist());
+    }
+
+    @Test
+    void shouldReturn500WithoutDetailsWhenServiceFails() throws Exception {
+        given(taskService.getTaskById(1L)).willThrow(new IllegalStateException("connection refused"));
+
+        mockMvc.perform(get("/api/tasks/1"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.detail").value("An unexpected error occurred"));
+    }
+
+    @Test
+    void shouldReturn400WhenIdIsNotANumber() throws Exception {
+        mockMvc.perform(get("/api/tasks/abc"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -87,7 +345,7 @@ public class TaskControllerTest {
         updatedTask.setId(1L);
         updatedTask.setTitle("Updated Task");
 
-        given(taskService.updateTask(any(Long.class), any(Task.class))).willReturn(updatedTask);
+        given(taskService.updateTask(any(Long.class), any(Task.class), isNull())).willReturn(TaskResponse.from(updatedTask));
 
         mockMvc.perform(put("/api/tasks/1")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -99,8 +357,8 @@ public class TaskControllerTest {
 
     @Test
     void shouldReturn404WhenUpdatingNonExistentTask() throws Exception {
-        given(taskService.updateTask(any(Long.class), any(Task.class)))
-                .willThrow(new RuntimeException("Task not found with id: 1"));
+        given(taskService.updateTask(any(Long.class), any(Task.class), isNull()))
+                .willThrow(new TaskNotFoundException(1L));
 
         mockMvc.perform(put("/api/tasks/1")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -110,7 +368,7 @@ public class TaskControllerTest {
 
     @Test
     void shouldReturn400WhenUpdatingWithNullTitle() throws Exception {
-        given(taskService.updateTask(any(Long.class), any(Task.class)))
+        given(taskService.updateTask(any(Long.class), any(Task.class), isNull()))
                 .willThrow(new IllegalArgumentException("Task title cannot be null or empty"));
 
         mockMvc.perform(put("/api/tasks/1")
@@ -128,10 +386,111 @@ public class TaskControllerTest {
 
     @Test
     void shouldReturn404WhenDeletingNonExistentTask() throws Exception {
-        doThrow(new RuntimeException("Task not found with id: 1"))
+        doThrow(new TaskNotFoundException(1L))
             .when(taskService).deleteTask(1L);
 
         mockMvc.perform(delete("/api/tasks/1"))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    void shouldCreateTasksInBatch() throws Exception {
+        given(taskService.createTasks(any())).willReturn(List.of(
+                BatchItemResult.success(0, 1L, Status.CREATED),
+                BatchItemResult.invalid(1, null, "Task title cannot be null or empty")));
+
+        mockMvc.perform(post("/api/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"title\":\"First\"}, {\"title\":\"\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[1].status").value("INVALID"));
+    }
+
+    @Test
+    void shouldDeleteTasksInBatch() throws Exception {
+        given(taskService.deleteTasks(List.of(1L, 2L))).willReturn(List.of(
+                BatchItemResult.success(0, 1L, Status.DELETED),
+                BatchItemResult.notFound(1, 2L)));
+
+        mockMvc.perform(delete("/api/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, 2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("DELETED"))
+                .andExpect(jsonPath("$[1].status").value("NOT_FOUND"));
+    }
+
+    @Test
+    void shouldExportTasksAsNdjson() throws Exception {
+        Task first = new Task();
+        first.setId(1L);
+        first.setTitle("First");
+        Task second = new Task();
+        second.setId(2L);
+        second.setTitle("Second");
+
+        willAnswer(invocation -> {
+            Consumer<TaskResponse> sink = invocation.getArgument(0);
+            sink.accept(TaskResponse.from(first));
+            sink.accept(TaskResponse.from(second));
+            return 2L;
+        }).given(taskService).exportTasks(any());
+
+        MvcResult result = mockMvc.perform(get("/api/tasks/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"title\":\"First\"");
+        assertThat(lines[1]).contains("\"title\":\"Second\"");
+    }
+
+    @Test
+    void shouldImportNdjsonBody() throws Exception {
+        given(taskImportService.importNdjson(any())).willReturn(new ImportSummary(2, 1,
+                List.of(new ImportSummary.RejectedLine(3, "Task title cannot be null or empty"))));
+
+        mockMvc.perform(post("/api/tasks/import")
+                .contentType("application/x-ndjson")
+                .content("{\"title\":\"A\"}\n{\"title\":\"B\"}\n{\"title\":\"\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.rejections[0].line").value(3));
+    }
+
+    @Test
+    void shouldImportCsvBody() throws Exception {
+        given(taskImportService.importCsv(any())).willReturn(new ImportSummary(1, 0, List.of()));
+
+        mockMvc.perform(post("/api/tasks/import")
+                .contentType("text/csv")
+                .content("title\nA\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+    }
+
+    @Test
+    void shouldSearchTasks() throws Exception {
+        Task task = new Task();
+        task.setId(4L);
+        task.setTitle("Buy milk");
+        given(taskService.searchTasks("milk", 0, 20)).willReturn(new TaskSearchPage(List.of(TaskResponse.from(task)), 1, null));
+
+        mockMvc.perform(get("/api/tasks/search").param("q", "milk"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].title").value("Buy milk"))
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.nextOffset").doesNotExist());
+    }
 }
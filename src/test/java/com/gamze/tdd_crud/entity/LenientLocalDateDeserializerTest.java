@@ -0,0 +1,43 @@
+package com.gamze.tdd_crud.entity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+public class LenientLocalDateDeserializerTest {
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Test
+    void shouldAcceptIsoAndLegacyFormats() {
+        LocalDate expected = LocalDate.of(2024, 12, 14);
+
+        assertThat(LenientLocalDateDeserializer.parse("2024-12-14")).isEqualTo(expected);
+        assertThat(LenientLocalDateDeserializer.parse(" 2024/12/14 ")).isEqualTo(expected);
+        assertThat(LenientLocalDateDeserializer.parse("14.12.2024")).isEqualTo(expected);
+        assertThat(LenientLocalDateDeserializer.parse("2024-12-14T23:59:00Z")).isEqualTo(expected);
+        assertThat(LenientLocalDateDeserializer.parse("")).isNull();
+    }
+
+    @Test
+    void shouldRejectImpossibleDates() {
+        assertThatThrownBy(() -> LenientLocalDateDeserializer.parse("2024-02-30"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid due date '2024-02-30', expected yyyy-MM-dd");
+    }
+
+    @Test
+    void shouldReadAndWriteTaskDueDate() {
+        Task task = jsonMapper.readValue("{\"title\":\"Legacy\",\"dueDate\":\"14.12.2024\"}", Task.class);
+
+        assertThat(task.getDueDate()).isEqualTo(LocalDate.of(2024, 12, 14));
+        assertThat(jsonMapper.writeValueAsString(task)).contains("\"dueDate\":\"2024-12-14\"");
+        assertThatThrownBy(() -> jsonMapper.readValue("{\"dueDate\":\"soon\"}", Task.class))
+                .isInstanceOf(JacksonException.class);
+    }
+}
@@ -0,0 +1,110 @@
+package com.gamze.tdd_crud.feed;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.gamze.tdd_crud.dto.TaskChange;
+import com.gamze.tdd_crud.dto.TaskResponse;
+import com.gamze.tdd_crud.event.TaskChangedEvent;
+
+public class TaskChangeFeedTest {
+    private static final Executor DIRECT = Runnable::run;
+
+    @Test
+    void shouldStreamCommittedChangesInOrder() {
+        TaskChangeFeed feed = new TaskChangeFeed(DIRECT, 16, Duration.ofMinutes(1));
+        RecordingEmitter emitter = new RecordingEmitter();
+        feed.subscribe(null, emitter);
+
+        TaskResponse created = task(1L, false);
+        TaskResponse completed = task(1L, true);
+        feed.onTaskChanged(TaskChangedEvent.created(created));
+        feed.onTaskChanged(TaskChangedEvent.updated(created, completed));
+        feed.onTaskChanged(TaskChangedEvent.deleted(completed));
+
+        assertThat(emitter.changes()).containsExactly(
+                new TaskChange(1, TaskChangedEvent.Type.CREATED, 1L, created),
+                new TaskChange(2, TaskChangedEvent.Type.UPDATED, 1L, completed),
+                new TaskChange(3, TaskChangedEvent.Type.DELETED, 1L, null));
+    }
+
+    @Test
+    void shouldResumeAfterLastSeenSequence() {
+        TaskChangeFeed feed = new TaskChangeFeed(DIRECT, 16, Duration.ofMinutes(1));
+        for (long id = 1; id <= 5; id++) {
+            feed.onTaskChanged(TaskChangedEvent.created(task(id, false)));
+        }
+
+        RecordingEmitter emitter = new RecordingEmitter();
+        feed.subscribe(2L, emitter);
+        feed.onTaskChanged(TaskChangedEvent.created(task(6L, false)));
+
+        assertThat(emitter.changes()).extracting(TaskChange::sequence).containsExactly(3L, 4L, 5L, 6L);
+        assertThat(emitter.resets).isZero();
+    }
+
+    @Test
+    void shouldResetWhenResumePointLeftTheBuffer() {
+        TaskChangeFeed feed = new TaskChangeFeed(DIRECT, 4, Duration.ofMinutes(1));
+        for (long id = 1; id <= 10; id++) {
+            feed.onTaskChanged(TaskChangedEvent.created(task(id, false)));
+        }
+
+        RecordingEmitter emitter = new RecordingEmitter();
+        feed.subscribe(2L, emitter);
+        feed.onTaskChanged(TaskChangedEvent.created(task(11L, false)));
+
+        assertThat(emitter.resets).isEqualTo(1);
+        assertThat(emitter.changes()).extracting(TaskChange::sequence).containsExactly(11L);
+    }
+
+    @Test
+    void shouldDisconnectSubscriberOvertakenByTheBuffer() {
+        // Drain tasks only run when the test says so, like a client that stopped reading.
+        List<Runnable> stalled = new ArrayList<>();
+        TaskChangeFeed feed = new TaskChangeFeed(stalled::add, 4, Duration.ofMinutes(1));
+        RecordingEmitter slow = new RecordingEmitter();
+        feed.subscribe(null, slow);
+
+        for (long id = 1; id <= 10; id++) {
+            feed.onTaskChanged(TaskChangedEvent.created(task(id, false)));
+        }
+        assertThat(stalled).hasSize(1);
+        stalled.get(0).run();
+
+        assertThat(slow.changes()).isEmpty();
+        assertThat(feed.subscriberCount()).isZero();
+    }
+
+    private static TaskResponse task(Long id, boolean completed) {
+        return new TaskResponse(id, "Task " + id, null, null, completed, LocalDateTime.of(2025, 3, 10, 12, 0), 0L);
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<Object> data = new ArrayList<>();
+        private int resets;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            for (DataWithMediaType part : builder.build()) {
+                data.add(part.getData());
+                if (part.getData() instanceof String text && text.contains("event:reset\n")) {
+                    resets++;
+                }
+            }
+        }
+
+        List<TaskChange> changes() {
+            return data.stream().filter(TaskChange.class::isInstance).map(TaskChange.class::cast).toList();
+        }
+    }
+}
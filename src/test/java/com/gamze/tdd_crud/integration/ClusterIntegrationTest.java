@@ -0,0 +1,183 @@
+package com.gamze.tdd_crud.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.h2.tools.Server;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.gamze.tdd_crud.TddCrudApplication;
+import com.gamze.tdd_crud.dto.TaskResponse;
+import com.gamze.tdd_crud.entity.Task;
+import com.gamze.tdd_crud.event.TaskChangedEvent;
+import com.gamze.tdd_crud.search.TaskSearchIndex;
+import com.gamze.tdd_crud.service.TaskService;
+import com.gamze.tdd_crud.stats.TaskStatistics;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Two nodes of the {@code cluster} profile share an H2 TCP server. The replica pool logs in
+ * as a user that may only read, so a write routed to it would fail.
+ */
+public class ClusterIntegrationTest {
+    private static Server server;
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+    private static int busB;
+
+    @BeforeAll
+    static void startCluster() throws Exception {
+        int dbPort = freeTcpPort();
+        server = Server.createTcpServer("-tcpPort", String.valueOf(dbPort), "-ifNotExists").start();
+        String url = "jdbc:h2:tcp://localhost:" + dbPort + "/mem:cluster";
+        // The admin connection keeps the in-memory database open until the server stops.
+        try (Connection connection = DriverManager.getConnection(url + ";DB_CLOSE_DELAY=-1", "sa", "");
+                Statement statement = connection.createStatement()) {
+            statement.execute("CREATE USER reader PASSWORD 'reader'");
+            statement.execute("GRANT SELECT ON SCHEMA PUBLIC TO reader");
+        }
+        int busA = freeUdpPort();
+        busB = freeUdpPort();
+        nodeA = startNode(url, busA, busB);
+        nodeB = startNode(url, busB, busA);
+    }
+
+    @AfterAll
+    static void stopCluster() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    void shouldRouteReadOnlyTransactionsToTheReplica() {
+        JdbcTemplate jdbcTemplate = nodeA.getBean(JdbcTemplate.class);
+        TransactionTemplate transaction = new TransactionTemplate(nodeA.getBean(PlatformTransactionManager.class));
+
+        String writer = transaction.execute(status -> jdbcTemplate.queryForObject("SELECT CURRENT_USER", String.class));
+        transaction.setReadOnly(true);
+        String reader = transaction.execute(status -> jdbcTemplate.queryForObject("SELECT CURRENT_USER", String.class));
+
+        assertThat(writer).isEqualToIgnoringCase("sa");
+        assertThat(reader).isEqualToIgnoringCase("reader");
+    }
+
+    @Test
+    void shouldApplyChangesFromPeersToSearchAndStats() throws InterruptedException {
+        TaskSearchIndex searchB = nodeB.getBean(TaskSearchIndex.class);
+        TaskStatistics statsA = nodeA.getBean(TaskStatistics.class);
+        TaskStatistics statsB = nodeB.getBean(TaskStatistics.class);
+        Task task = new Task();
+        task.setTitle("Quarterly zeppelin inspection");
+        TaskResponse created = nodeA.getBean(TaskService.class).createTask(task);
+
+        awaitTrue(() -> searchB.search("zeppelin", 10).ids().contains(created.id())
+                && total(statsB) == total(statsA));
+        assertThat(searchB.search("zeppelin", 10).ids()).contains(created.id());
+        assertThat(total(statsB)).isEqualTo(total(statsA));
+
+        nodeB.getBean(TaskService.class).deleteTask(created.id());
+        TaskSearchIndex searchA = nodeA.getBean(TaskSearchIndex.class);
+        awaitTrue(() -> searchA.search("zeppelin", 10).total() == 0 && total(statsA) == total(statsB));
+        assertThat(searchA.search("zeppelin", 10).total()).isZero();
+        assertThat(total(statsA)).isEqualTo(total(statsB));
+    }
+
+    @Test
+    void shouldDropChangesFromHostsThatAreNotPeers() throws Exception {
+        TaskResponse forged = new TaskResponse(9_999_999L, "Forged hovercraft", null, null, false,
+                LocalDateTime.now(), 0L);
+        byte[] message = nodeB.getBean(JsonMapper.class).writeValueAsBytes(TaskChangedEvent.created(forged));
+        try (DatagramSocket stranger = new DatagramSocket(0, InetAddress.getLoopbackAddress())) {
+            stranger.send(new DatagramPacket(message, message.length, InetAddress.getLoopbackAddress(), busB));
+        }
+        // The bus handles datagrams in order, so once a real change from A has arrived, the forged one was seen.
+        TaskSearchIndex searchB = nodeB.getBean(TaskSearchIndex.class);
+        Task task = new Task();
+        task.setTitle("Genuine hovercraft");
+        TaskResponse created = nodeA.getBean(TaskService.class).createTask(task);
+        awaitTrue(() -> searchB.search("hovercraft", 10).ids().contains(created.id()));
+
+        assertThat(searchB.search("hovercraft", 10).ids()).containsExactly(created.id());
+    }
+
+    @Test
+    void shouldShareTasksAndInvalidateCachesAcrossNodes() throws InterruptedException {
+        TaskService serviceA = nodeA.getBean(TaskService.class);
+        TaskService serviceB = nodeB.getBean(TaskService.class);
+        Task task = new Task();
+        task.setTitle("Shared task");
+        TaskResponse created = serviceA.createTask(task);
+
+        assertThat(serviceB.getTaskById(created.id()).title()).isEqualTo("Shared task");
+        assertThat(serviceA.getTaskById(created.id()).title()).isEqualTo("Shared task");
+
+        Task update = new Task();
+        update.setTitle("Renamed on B");
+        serviceB.updateTask(created.id(), update, null);
+
+        awaitTrue(() -> serviceA.getTaskById(created.id()).title().equals("Renamed on B"));
+        assertThat(serviceA.getTaskById(created.id()).title()).isEqualTo("Renamed on B");
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static long total(TaskStatistics statistics) {
+        return statistics.snapshot(LocalDate.now(), 1).total();
+    }
+
+    private static ConfigurableApplicationContext startNode(String url, int busPort, int peerPort) {
+        return new SpringApplicationBuilder(TddCrudApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("cluster")
+                .run("--spring.datasource.url=" + url,
+                        "--tasks.cluster.replica.username=reader",
+                        "--tasks.cluster.replica.password=reader",
+                        "--tasks.cluster.cache-bus.port=" + busPort,
+                        "--tasks.cluster.cache-bus.peers=localhost:" + peerPort,
+                        "--spring.main.banner-mode=off");
+    }
+
+    private static int freeTcpPort() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static int freeUdpPort() throws Exception {
+        try (DatagramSocket socket = new DatagramSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.gamze.tdd_crud.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.gamze.tdd_crud.dto.TaskResponse;
+import com.gamze.tdd_crud.entity.Task;
+import com.gamze.tdd_crud.service.TaskService;
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * Runs against the embedded Tomcat, since compression and the HTTP/2 upgrade happen below
+ * Spring MVC, where MockMvc does not reach.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:httptransport;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("test")
+public class HttpTransportIntegrationTest {
+    private static final String DESCRIPTION = "Collect the receipts and file them by month. ".repeat(5);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TaskService taskService;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+
+    @Test
+    void shouldUpgradeToHttp2AndGzipLargeListings() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            taskService.createTask(task("Listed " + i));
+        }
+
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(uri("/api/tasks?limit=20"))
+                .header("Accept-Encoding", "gzip")
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.version()).isEqualTo(HttpClient.Version.HTTP_2);
+        assertThat(response.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        assertThat(response.headers().firstValue("Cache-Control")).hasValue("no-cache");
+        String json = gunzip(response.body());
+        assertThat(JsonPath.<Integer>read(json, "$.items.length()")).isEqualTo(20);
+        assertThat(response.body().length).isLessThan(json.length() / 10);
+    }
+
+    @Test
+    void shouldLeaveSingleTasksUncompressedWithStrongETag() throws Exception {
+        TaskResponse created = taskService.createTask(task("Uncompressed"));
+
+        HttpResponse<String> read = client.send(HttpRequest.newBuilder(uri("/api/tasks/" + created.id()))
+                .header("Accept-Encoding", "gzip")
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        assertThat(read.headers().firstValue("Content-Encoding")).isEmpty();
+        assertThat(read.headers().firstValue("ETag")).hasValue("\"" + created.version() + "\"");
+        assertThat(JsonPath.<String>read(read.body(), "$.description")).isEqualTo(DESCRIPTION);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static Task task(String title) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setDescription(DESCRIPTION);
+        return task;
+    }
+
+    private static String gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.gamze.tdd_crud.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.micrometer.metrics.test.autoconfigure.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Dashboards and alerts depend on these metric names, so renaming one must be deliberate.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@ActiveProfiles("test")
+public class MetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void shouldKeepMetricNamesStable() throws Exception {
+        mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Metered\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tasks/9999"))
+                .andExpect(status().isNotFound());
+
+        assertThat(meterRegistry.get("http.server.requests").timers()).isNotEmpty();
+        assertThat(meterRegistry.get("tasks.service").tag("method", "createTask").timer().count()).isPositive();
+        assertThat(meterRegistry.get("tasks.service").tag("method", "getTaskById").timer().count()).isPositive();
+        assertThat(meterRegistry.get("tasks.validation.failures").counter().count()).isPositive();
+        assertThat(meterRegistry.get("tasks.not.found").counter().count()).isPositive();
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "tasks").meters()).isNotEmpty();
+        assertThat(meterRegistry.get("hibernate.statements").meters()).isNotEmpty();
+        assertThat(meterRegistry.get("hibernate.query.executions").meters()).isNotEmpty();
+        assertThat(meterRegistry.get("hikaricp.connections.acquire").timer()).isNotNull();
+    }
+
+    @Test
+    void shouldExposePrometheusScrapeEndpoint() throws Exception {
+        mockMvc.perform(get("/api/tasks"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("tasks_service_seconds_bucket")))
+                .andExpect(content().string(containsString("tasks_not_found_total")))
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")));
+    }
+}
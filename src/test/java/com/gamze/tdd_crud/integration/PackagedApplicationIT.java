@@ -0,0 +1,97 @@
+package com.gamze.tdd_crud.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * Runs the repackaged jar with {@code java -jar} and sends it requests. The test classpath holds
+ * every test dependency, so only this run notices a runtime dependency that the jar lacks. Runs
+ * in {@code mvn verify}, after the jar is built; the output goes to {@code target/packaged-app.log}.
+ */
+public class PackagedApplicationIT {
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(90);
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    void packagedJarServesRequests() throws Exception {
+        Path jar = Path.of(System.getProperty("packaged.jar", "target/tdd-crud-0.0.1-SNAPSHOT.jar"));
+        assertThat(jar).as("repackaged application jar").isRegularFile();
+        int port = freeTcpPort();
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Process application = new ProcessBuilder(java, "-jar", jar.toString(),
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:h2:mem:packaged",
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off")
+                .redirectErrorStream(true)
+                .redirectOutput(new File("target/packaged-app.log"))
+                .start();
+        try {
+            String base = "http://localhost:" + port;
+            awaitHealthy(application, base);
+
+            HttpResponse<String> created = client.send(HttpRequest.newBuilder(URI.create(base + "/api/tasks"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"Packaged\"}"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertThat(created.statusCode()).as(created.body()).isEqualTo(201);
+            Number id = JsonPath.read(created.body(), "$.id");
+
+            HttpResponse<String> read = client.send(HttpRequest.newBuilder(URI.create(base + "/api/tasks/" + id))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertThat(read.statusCode()).as(read.body()).isEqualTo(200);
+            assertThat(read.body()).contains("\"title\":\"Packaged\"");
+        } finally {
+            application.destroy();
+            if (!application.waitFor(30, TimeUnit.SECONDS)) {
+                application.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * Health is out of service (503) until the application is ready; any other answer but 200
+     * means it is broken.
+     */
+    private void awaitHealthy(Process application, String base) throws Exception {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        HttpRequest health = HttpRequest.newBuilder(URI.create(base + "/actuator/health")).build();
+        while (System.nanoTime() < deadline) {
+            assertThat(application.isAlive()).as("application is running; see target/packaged-app.log").isTrue();
+            HttpResponse<String> response;
+            try {
+                response = client.send(health, HttpResponse.BodyHandlers.ofString());
+            } catch (IOException ex) {
+                response = null; // Not listening yet.
+            }
+            if (response != null && response.statusCode() != 503) {
+                assertThat(response.statusCode()).as("health; see target/packaged-app.log").isEqualTo(200);
+                return;
+            }
+            Thread.sleep(250);
+        }
+        throw new AssertionError("Application did not answer health within " + STARTUP_TIMEOUT
+                + "; see target/packaged-app.log");
+    }
+
+    private static int freeTcpPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
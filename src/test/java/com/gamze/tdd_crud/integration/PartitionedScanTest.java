@@ -0,0 +1,113 @@
+package com.gamze.tdd_crud.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.gamze.tdd_crud.dto.DateCount;
+import com.gamze.tdd_crud.dto.TaskCounts;
+import com.gamze.tdd_crud.dto.TaskResponse;
+import com.gamze.tdd_crud.repository.TaskRepository;
+import com.gamze.tdd_crud.service.TaskService;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Scans split into id ranges must return exactly what a single scan returns, in id order,
+ * and give their connections back when the consumer fails half way.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:partitionedscan;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "tasks.scan.partitions=4"
+})
+@ActiveProfiles("test")
+public class PartitionedScanTest {
+    private static final long FIRST_ID = 7_000_000;
+    private static final int ROWS = 5_000;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private HikariDataSource dataSource;
+
+    @BeforeEach
+    void insertTasks() {
+        jdbcTemplate.update("DELETE FROM tasks");
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 1, 12, 0);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            // Every third id is missing, so the ranges hold different numbers of rows.
+            long id = FIRST_ID + i + i / 2;
+            rows.add(new Object[] { id, "Scanned task " + i, i % 5 == 0,
+                    Timestamp.valueOf(createdAt.plusDays(i % 3)), LocalDate.of(2024, 1, 1 + i % 7) });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tasks (id, title, completed, created_at, due_date, version) "
+                + "VALUES (?, ?, ?, ?, ?, 0)", rows);
+    }
+
+    @Test
+    void shouldExportEveryTaskInIdOrder() {
+        List<Long> exported = new ArrayList<>();
+        long count = taskService.exportTasks(task -> exported.add(task.id()));
+
+        assertThat(count).isEqualTo(ROWS);
+        assertThat(exported).isSorted().doesNotHaveDuplicates()
+                .isEqualTo(jdbcTemplate.queryForList("SELECT id FROM tasks ORDER BY id", Long.class));
+    }
+
+    @Test
+    void shouldCountLikeASingleQuery() {
+        TaskCounts counts = taskRepository.countTasks();
+
+        assertThat(counts.total()).isEqualTo(ROWS);
+        assertThat(counts.completed()).isEqualTo(ROWS / 5);
+        assertThat(counts.createdPerDay()).extracting(DateCount::count).containsExactly(1667L, 1667L, 1666L);
+        assertThat(counts.openPerDueDate()).hasSize(7)
+                .extracting(DateCount::count).allSatisfy(open -> assertThat(open).isBetween(570L, 572L))
+                .matches(open -> open.stream().mapToLong(Long::longValue).sum() == ROWS - ROWS / 5);
+    }
+
+    @Test
+    void shouldReleaseConnectionsWhenTheConsumerFails() throws InterruptedException {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+
+        assertThatThrownBy(() -> transaction.executeWithoutResult(status -> taskRepository.forEachTask(task -> {
+            if (task.id() > FIRST_ID + 10) {
+                throw new IllegalStateException("client went away");
+            }
+        }))).hasMessage("client went away");
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (dataSource.getHikariPoolMXBean().getActiveConnections() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(dataSource.getHikariPoolMXBean().getActiveConnections()).isZero();
+        assertThat(taskService.exportTasks(TaskResponse::id)).isEqualTo(ROWS);
+    }
+}
@@ -0,0 +1,95 @@
+package com.gamze.tdd_crud.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.gamze.tdd_crud.service.TaskService;
+import com.jayway.jsonpath.JsonPath;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * The {@code perf} profile turns auto-commit off in the pool, so writes must still commit,
+ * and the test profile fails any request over its statement budget, so full batches prove
+ * that batch endpoints do not run a statement per element.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:perfprofile;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles({ "test", "perf" })
+public class PerfProfileIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private HikariDataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldCommitWritesWithAutoCommitDisabledInThePool() throws Exception {
+        assertThat(dataSource.isAutoCommit()).isFalse();
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(10);
+        assertThat(dataSource.getLeakDetectionThreshold()).isEqualTo(30_000);
+
+        String created = mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Committed\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = JsonPath.<Number>read(created, "$.id").longValue();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT title FROM tasks WHERE id = ?", String.class, id))
+                .isEqualTo("Committed");
+        mockMvc.perform(get("/api/tasks/" + id)).andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldKeepFullBatchesWithinStatementBudget() throws Exception {
+        StringJoiner tasks = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < TaskService.MAX_BATCH_SIZE; i++) {
+            tasks.add("{\"title\":\"Budgeted " + i + "\"}");
+        }
+        String created = mockMvc.perform(post("/api/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(tasks.toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<Number> ids = JsonPath.read(created, "$[*].id");
+        assertThat(ids).hasSize(TaskService.MAX_BATCH_SIZE);
+
+        StringJoiner updates = new StringJoiner(",", "[", "]");
+        ids.forEach(id -> updates.add("{\"id\":" + id + ",\"title\":\"Rebudgeted\",\"completed\":true}"));
+        mockMvc.perform(put("/api/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updates.toString()))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/tasks").param("completed", "true").param("limit", "100"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ids.toString()))
+                .andExpect(status().isOk());
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks WHERE title LIKE 'Budgeted%' "
+                + "OR title = 'Rebudgeted'", Long.class)).isZero();
+    }
+}
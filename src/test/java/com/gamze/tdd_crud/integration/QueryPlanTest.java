@@ -0,0 +1,71 @@
+package com.gamze.tdd_crud.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Asks H2 how it would run the live-row and tombstone queries issued by the repository, to catch a
+ * mapping or index change that silently turns them back into full table scans.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class QueryPlanTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldReadLiveTasksInIndexOrder() {
+        String plan = explain("""
+                SELECT * FROM tasks
+                WHERE deleted_at IS NULL
+                ORDER BY deleted_at, created_at, id
+                """);
+
+        assertThat(plan).containsIgnoringCase("IDX_TASKS_DELETED_AT_CREATED_AT_ID");
+        assertThat(plan).contains("/* index sorted */");
+    }
+
+    @Test
+    void shouldServeDueDateRangeFromIndex() {
+        String plan = explain("""
+                SELECT * FROM tasks
+                WHERE deleted_at IS NULL AND due_date < DATE '2030-01-01' AND due_date > DATE '2029-01-01'
+                ORDER BY created_at, id
+                """);
+
+        assertThat(plan).containsIgnoringCase("IDX_TASKS_DELETED_AT_DUE_DATE_CREATED_AT_ID");
+        assertThat(plan).containsIgnoringCase("DUE_DATE < DATE '2030-01-01'");
+    }
+
+    @Test
+    void shouldReadOverdueTasksInIndexOrder() {
+        String plan = explain("""
+                SELECT * FROM tasks
+                WHERE deleted_at IS NULL AND completed = FALSE AND due_date < DATE '2030-01-01'
+                ORDER BY deleted_at, completed, due_date, id
+                """);
+
+        assertThat(plan).containsIgnoringCase("IDX_TASKS_DELETED_AT_COMPLETED_DUE_DATE_ID");
+        assertThat(plan).contains("/* index sorted */");
+    }
+
+    @Test
+    void shouldFindTombstonesWithoutScanningLiveRows() {
+        String plan = explain("""
+                DELETE FROM tasks WHERE deleted_at < TIMESTAMP '2030-01-01 00:00:00' FETCH FIRST 500 ROWS ONLY
+                """);
+
+        assertThat(plan).containsIgnoringCase("IDX_TASKS_DELETED_AT_CREATED_AT_ID");
+        assertThat(plan).containsIgnoringCase("DELETED_AT < TIMESTAMP '2030-01-01 00:00:00'");
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+}
@@ -0,0 +1,82 @@
+package com.gamze.tdd_crud.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import com.gamze.tdd_crud.dto.TaskResponse;
+import com.gamze.tdd_crud.entity.Task;
+import com.gamze.tdd_crud.repository.TaskRepository;
+import com.gamze.tdd_crud.service.TaskService;
+
+/**
+ * Simultaneous cache misses for one task must reach the database once; the other callers
+ * wait for that load instead of running their own.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:coalescing;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("test")
+public class RequestCoalescingTest {
+    private static final int READERS = 32;
+
+    @Autowired
+    private TaskService taskService;
+
+    @MockitoSpyBean
+    private TaskRepository taskRepository;
+
+    @Test
+    void shouldLoadAHotTaskOnceForConcurrentReads() throws Exception {
+        Task task = new Task();
+        task.setTitle("Hot task");
+        TaskResponse created = taskService.createTask(task);
+        Long id = created.id();
+
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            loading.countDown();
+            assertThat(release.await(10, TimeUnit.SECONDS)).isTrue();
+            return Optional.of(created);
+        }).when(taskRepository).findResponseById(id);
+
+        ExecutorService pool = Executors.newFixedThreadPool(READERS);
+        try {
+            List<Future<TaskResponse>> reads = new ArrayList<>();
+            reads.add(pool.submit(() -> taskService.getTaskById(id)));
+            assertThat(loading.await(10, TimeUnit.SECONDS)).isTrue();
+            for (int i = 1; i < READERS; i++) {
+                reads.add(pool.submit(() -> taskService.getTaskById(id)));
+            }
+            // Give the late readers time to reach the cache and queue behind the load.
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<TaskResponse> read : reads) {
+                assertThat(read.get(10, TimeUnit.SECONDS).title()).isEqualTo("Hot task");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(taskRepository, times(1)).findResponseById(id);
+    }
+}
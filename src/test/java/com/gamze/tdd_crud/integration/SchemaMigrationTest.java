@@ -0,0 +1,68 @@
+package com.gamze.tdd_crud.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.gamze.tdd_crud.entity.Task;
+import com.gamze.tdd_crud.service.TaskService;
+
+/**
+ * Runs the application the way the {@code prod} profile does: the schema comes from the
+ * Flyway migrations and Hibernate validates it, so an entity change without a matching
+ * migration fails here.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migrationdb;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+public class SchemaMigrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Test
+    void shouldBuildSchemaFromMigrations() {
+        Integer applied = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM \"flyway_schema_history\" WHERE \"success\" = TRUE", Integer.class);
+        assertThat(applied).isPositive();
+
+        Task task = new Task();
+        task.setTitle("Migrated");
+        assertThat(taskService.createTask(task).id()).isNotNull();
+    }
+
+    @Test
+    void shouldConvertLegacyDueDateText() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:legacydb;DB_CLOSE_DELAY=-1");
+        Flyway.configure().dataSource(dataSource).target("1").load().migrate();
+
+        JdbcTemplate legacy = new JdbcTemplate(dataSource);
+        List<String> dueDates = List.of("2024-12-14", "15.12.2024", "2024/12/16", "2024-12-17T09:30:00", "someday", " ");
+        for (int i = 0; i < dueDates.size(); i++) {
+            legacy.update("INSERT INTO tasks (id, title, due_date, completed, version) VALUES (?, 'Legacy', ?, FALSE, 0)",
+                    i + 1, dueDates.get(i));
+        }
+
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        assertThat(legacy.queryForList("SELECT due_date FROM tasks ORDER BY id", LocalDate.class)).containsExactly(
+                LocalDate.of(2024, 12, 14), LocalDate.of(2024, 12, 15), LocalDate.of(2024, 12, 16),
+                LocalDate.of(2024, 12, 17), null, null);
+        assertThat(legacy.queryForList("SELECT due_date_legacy FROM tasks ORDER BY id", String.class))
+                .containsExactly(null, null, null, null, "someday", null);
+    }
+}
@@ -0,0 +1,119 @@
+package com.gamze.tdd_crud.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.gamze.tdd_crud.dto.BatchItemResult;
+import com.gamze.tdd_crud.dto.TaskFilter;
+import com.gamze.tdd_crud.dto.TaskResponse;
+import com.gamze.tdd_crud.entity.Task;
+import com.gamze.tdd_crud.purge.TombstonePurger;
+import com.gamze.tdd_crud.repository.TaskRepository;
+import com.gamze.tdd_crud.service.TaskService;
+
+/**
+ * Soft-deleted tasks must disappear from every read while their rows remain, and the purge
+ * must remove exactly the tombstones past retention.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:softdelete;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "tasks.soft-delete.enabled=true",
+        "tasks.soft-delete.purge-batch-size=100",
+        "tasks.soft-delete.purge-pause=0ms"
+})
+@ActiveProfiles("test")
+public class SoftDeleteIntegrationTest {
+    private static final long TOMBSTONE_ID = 5_000_000;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TombstonePurger purger;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldHideSoftDeletedTasksFromEveryRead() {
+        TaskResponse deleted = taskService.createTask(task("Vanishing errand", LocalDate.of(2020, 1, 1)));
+        TaskResponse batchDeleted = taskService.createTask(task("Vanishing chore", LocalDate.of(2020, 1, 1)));
+        TaskResponse kept = taskService.createTask(task("Lasting errand", LocalDate.of(2020, 1, 1)));
+        taskService.getTaskById(deleted.id());
+
+        taskService.deleteTask(deleted.id());
+        List<BatchItemResult> results = taskService.deleteTasks(List.of(batchDeleted.id()));
+
+        assertThat(results).extracting(BatchItemResult::status).containsExactly(BatchItemResult.Status.DELETED);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tasks WHERE id IN (?, ?) AND deleted_at IS NOT NULL", Long.class,
+                deleted.id(), batchDeleted.id())).isEqualTo(2);
+
+        List<Long> gone = List.of(deleted.id(), batchDeleted.id());
+        assertThatThrownBy(() -> taskService.getTaskById(deleted.id())).hasMessageContaining("Task not found");
+        assertThat(taskService.listTasks(TaskFilter.none(), null, 100).items())
+                .extracting(TaskResponse::id).contains(kept.id()).doesNotContainAnyElementsOf(gone);
+        assertThat(taskService.listOverdueTasks(null, 100).items())
+                .extracting(TaskResponse::id).contains(kept.id()).doesNotContainAnyElementsOf(gone);
+        assertThat(taskService.searchTasks("vanishing", 0, 10).items()).isEmpty();
+        List<Long> exported = new ArrayList<>();
+        taskService.exportTasks(task -> exported.add(task.id()));
+        assertThat(exported).doesNotContainAnyElementsOf(gone);
+        assertThat(taskRepository.findAllById(gone)).isEmpty();
+        assertThat(taskRepository.count()).isEqualTo(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tasks WHERE deleted_at IS NULL", Long.class));
+
+        assertThatThrownBy(() -> taskService.updateTask(deleted.id(), task("Back", null), null))
+                .hasMessageContaining("Task not found");
+        assertThatThrownBy(() -> taskService.deleteTask(deleted.id())).hasMessageContaining("Task not found");
+    }
+
+    @Test
+    void shouldPurgeOnlyTombstonesPastRetention() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        insertTombstones(TOMBSTONE_ID, 1050, now.minusHours(2));
+        insertTombstones(TOMBSTONE_ID + 10_000, 30, now.minusMinutes(5));
+        TaskResponse live = taskService.createTask(task("Survivor", null));
+
+        assertThat(purger.purge(now.minusHours(1), Instant.now())).isZero();
+        assertThat(purger.purge(now.minusHours(1), Instant.MAX)).isEqualTo(1050);
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tasks WHERE id >= ?", Long.class, TOMBSTONE_ID)).isEqualTo(30);
+        assertThat(taskService.getTaskById(live.id()).title()).isEqualTo("Survivor");
+        assertThat(purger.purge(now.minusHours(1), Instant.MAX)).isZero();
+    }
+
+    private void insertTombstones(long firstId, int count, LocalDateTime deletedAt) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] { firstId + i, "Tombstone " + i, Timestamp.valueOf(deletedAt) });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tasks (id, title, completed, created_at, version, deleted_at) "
+                + "VALUES (?, ?, FALSE, CURRENT_TIMESTAMP, 0, ?)", rows);
+    }
+
+    private static Task task(String title, LocalDate dueDate) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setDueDate(dueDate);
+        return task;
+    }
+}
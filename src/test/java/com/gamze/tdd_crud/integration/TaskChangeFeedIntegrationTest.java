@@ -0,0 +1,123 @@
+package com.gamze.tdd_crud.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.gamze.tdd_crud.entity.Task;
+import com.gamze.tdd_crud.feed.TaskChangeFeed;
+import com.gamze.tdd_crud.service.TaskService;
+
+/**
+ * Thousands of clients hold the change stream open at once. Both ends use non-blocking I/O:
+ * Tomcat parks the async requests without a thread each, and the JDK client reads every
+ * stream from its selector thread. Every client must see every committed change.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:changefeed;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("test")
+public class TaskChangeFeedIntegrationTest {
+    private static final int SUBSCRIBERS = 2000;
+    private static final int CHANGES = 5;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskChangeFeed changeFeed;
+
+    @Test
+    void shouldDeliverEveryChangeToThousandsOfSubscribers() throws Exception {
+        // One HTTP/1.1 connection per subscriber, as separate clients would have. Over HTTP/2
+        // the client would multiplex them onto shared connections of at most 100 streams each.
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tasks/changes"))
+                .header("Accept", "text/event-stream")
+                .build();
+        CountDownLatch received = new CountDownLatch(SUBSCRIBERS);
+        List<EventCounter> counters = new ArrayList<>();
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            EventCounter counter = new EventCounter(received);
+            counters.add(counter);
+            client.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(counter));
+        }
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+            while (changeFeed.subscriberCount() < SUBSCRIBERS && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            assertThat(changeFeed.subscriberCount()).isEqualTo(SUBSCRIBERS);
+
+            for (int i = 0; i < CHANGES; i++) {
+                Task task = new Task();
+                task.setTitle("Watched " + i);
+                taskService.createTask(task);
+            }
+
+            assertThat(received.await(60, TimeUnit.SECONDS)).isTrue();
+            assertThat(counters).allSatisfy(counter -> assertThat(counter.created.get()).isEqualTo(CHANGES));
+        } finally {
+            counters.forEach(EventCounter::cancel);
+        }
+    }
+
+    /**
+     * Counts {@code created} events and counts down once it has seen all of them.
+     */
+    private static class EventCounter implements Flow.Subscriber<String> {
+        private final CountDownLatch received;
+        private final AtomicInteger created = new AtomicInteger();
+        private volatile Flow.Subscription subscription;
+
+        EventCounter(CountDownLatch received) {
+            this.received = received;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (line.equals("event:created") && created.incrementAndGet() == CHANGES) {
+                received.countDown();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        void cancel() {
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+    }
+}
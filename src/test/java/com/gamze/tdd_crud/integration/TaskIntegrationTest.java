@@ -1,16 +1,28 @@
 package com.gamze.tdd_crud.integration;
 
+import java.time.LocalDate;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.cache.CacheManager;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.gamze.tdd_crud.entity.Task;
+import com.gamze.tdd_crud.repository.TaskRepository;
+import com.gamze.tdd_crud.service.TaskService;
 import com.jayway.jsonpath.JsonPath;
 
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -22,12 +34,21 @@ public class TaskIntegrationTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
     @Test
     void shouldCreateAndReadTask() throws Exception {
         Task createdTask = new Task();
         createdTask.setTitle("Integration Test Task");
         createdTask.setDescription("Integration Test Description");
-        createdTask.setDueDate("2024-12-20");
+        createdTask.setDueDate(LocalDate.of(2024, 12, 20));
 
         String taskJson = "{\"title\":\"" + createdTask.getTitle() + "\", \"description\":\"" + createdTask.getDescription() + "\", \"dueDate\":\"" + createdTask.getDueDate() + "\"}";
         String response = mockMvc.perform(post("/api/tasks")
@@ -139,4 +160,349 @@ public class TaskIntegrationTest {
         mockMvc.perform(delete("/api/tasks/9999"))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    void shouldPageThroughFilteredTasksWithCursor() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            mockMvc.perform(post("/api/tasks")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"title\":\"Paged " + i + "\", \"dueDate\":\"2031-01-15\"}"))
+                    .andExpect(status().isCreated());
+        }
+        mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Paged done\", \"dueDate\":\"2031-01-15\", \"completed\":true}"))
+                .andExpect(status().isCreated());
+
+        String firstPage = mockMvc.perform(get("/api/tasks")
+                .param("dueDate", "2031-01-15")
+                .param("completed", "false")
+                .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].title").value("Paged 1"))
+                .andExpect(jsonPath("$.items[1].title").value("Paged 2"))
+                .andExpect(jsonPath("$.nextCursor").exists())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String cursor = JsonPath.read(firstPage, "$.nextCursor");
+        mockMvc.perform(get("/api/tasks")
+                .param("dueDate", "2031-01-15")
+                .param("completed", "false")
+                .param("limit", "2")
+                .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].title").value("Paged 3"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void shouldReturn400WhenListingWithInvalidLimit() throws Exception {
+        mockMvc.perform(get("/api/tasks").param("limit", "1000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldCreateUpdateAndDeleteTasksInBatch() throws Exception {
+        String response = mockMvc.perform(post("/api/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"title\":\"Batch 1\"}, {\"title\":\"\"}, {\"title\":\"Batch 2\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[1].status").value("INVALID"))
+                .andExpect(jsonPath("$[2].status").value("CREATED"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        Integer firstId = JsonPath.read(response, "$[0].id");
+        Integer secondId = JsonPath.read(response, "$[2].id");
+
+        mockMvc.perform(put("/api/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"id\":" + firstId + ", \"title\":\"Batch 1 done\", \"completed\":true},"
+                        + " {\"id\":9999, \"title\":\"Missing\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("UPDATED"))
+                .andExpect(jsonPath("$[1].status").value("NOT_FOUND"));
+
+        mockMvc.perform(get("/api/tasks/" + firstId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Batch 1 done"))
+                .andExpect(jsonPath("$.completed").value(true));
+
+        mockMvc.perform(delete("/api/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[" + firstId + ", " + secondId + ", 9999]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("DELETED"))
+                .andExpect(jsonPath("$[1].status").value("DELETED"))
+                .andExpect(jsonPath("$[2].status").value("NOT_FOUND"));
+
+        mockMvc.perform(get("/api/tasks/" + secondId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldNeverServeCachedTaskAfterUpdateOrDelete() throws Exception {
+        String response = mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Cached Title\"}"))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        Long taskId = ((Integer) JsonPath.read(response, "$.id")).longValue();
+
+        mockMvc.perform(get("/api/tasks/" + taskId))
+                .andExpect(jsonPath("$.title").value("Cached Title"));
+        assertThat(cacheManager.getCache(TaskService.TASKS_CACHE).get(taskId)).isNotNull();
+
+        mockMvc.perform(put("/api/tasks/" + taskId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Fresh Title\"}"))
+                .andExpect(status().isOk());
+        assertThat(cacheManager.getCache(TaskService.TASKS_CACHE).get(taskId)).isNull();
+        mockMvc.perform(get("/api/tasks/" + taskId))
+                .andExpect(jsonPath("$.title").value("Fresh Title"));
+
+        mockMvc.perform(put("/api/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"id\":" + taskId + ", \"title\":\"Batch Title\"}]"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/tasks/" + taskId))
+                .andExpect(jsonPath("$.title").value("Batch Title"));
+
+        mockMvc.perform(delete("/api/tasks/" + taskId))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/tasks/" + taskId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldExposeCacheStatistics() throws Exception {
+        mockMvc.perform(get("/actuator/metrics/cache.gets").param("tag", "cache:tasks"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[0].value").exists());
+        mockMvc.perform(get("/actuator/metrics/cache.evictions").param("tag", "cache:tasks"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldUpdateAndDeleteWithOneStatementEach() throws Exception {
+        String response = mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Single statement\"}"))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        Long taskId = ((Integer) JsonPath.read(response, "$.id")).longValue();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        mockMvc.perform(put("/api/tasks/" + taskId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Single statement updated\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Single statement updated"))
+                .andExpect(jsonPath("$.createdAt").exists());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        mockMvc.perform(delete("/api/tasks/" + taskId))
+                .andExpect(status().isNoContent());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotCreateTombstonesFromRequestBodies() throws Exception {
+        String created = mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Alive\",\"deletedAt\":\"2000-01-01T00:00:00\"}"))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String batch = mockMvc.perform(post("/api/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"title\":\"Alive too\",\"deletedAt\":\"2000-01-01T00:00:00\"}]"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        mockMvc.perform(get("/api/tasks/" + JsonPath.read(created, "$.id")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/tasks/" + JsonPath.read(batch, "$[0].id")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldStartNewTasksAtVersionZeroWhateverTheClientSends() throws Exception {
+        mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Versioned\",\"version\":7}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.version").value(0));
+    }
+
+    @Test
+    void shouldRejectConcurrentUpdateWithStaleETag() throws Exception {
+        String response = mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Versioned\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.version").value(0))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        Long taskId = ((Integer) JsonPath.read(response, "$.id")).longValue();
+
+        String eTag = mockMvc.perform(get("/api/tasks/" + taskId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        mockMvc.perform(get("/api/tasks/" + taskId).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(put("/api/tasks/" + taskId)
+                .header("If-Match", eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"First writer\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""));
+
+        mockMvc.perform(put("/api/tasks/" + taskId)
+                .header("If-Match", eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Second writer\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/api/tasks/" + taskId).header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("First writer"));
+
+        mockMvc.perform(put("/api/tasks/9999")
+                .header("If-Match", "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Missing\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldExportEveryTaskAsOneJsonLine() throws Exception {
+        mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Exported task\"}"))
+                .andExpect(status().isCreated());
+
+        MvcResult result = mockMvc.perform(get("/api/tasks/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        long taskCount = taskRepository.count();
+        assertThat(body.lines().count()).isEqualTo(taskCount);
+        assertThat(body.lines().map(line -> JsonPath.<String>read(line, "$.title")))
+                .contains("Exported task");
+    }
+
+    @Test
+    void shouldImportNdjsonAndCsv() throws Exception {
+        long before = taskRepository.count();
+
+        mockMvc.perform(post("/api/tasks/import")
+                .contentType("application/x-ndjson")
+                .content("{\"title\":\"Imported 1\"}\n{\"title\":\"\"}\n{\"title\":\"Imported 2\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.rejections[0].line").value(2));
+
+        mockMvc.perform(post("/api/tasks/import")
+                .contentType("text/csv")
+                .content("title,dueDate,completed\nImported 3,2030-01-01,true\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+
+        assertThat(taskRepository.count()).isEqualTo(before + 3);
+    }
+
+    @Test
+    void shouldKeepSearchIndexInSyncWithWrites() throws Exception {
+        String response = mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Renew zanzibar visa\", \"description\":\"Embassy appointment\"}"))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        Long taskId = ((Integer) JsonPath.read(response, "$.id")).longValue();
+
+        mockMvc.perform(get("/api/tasks/search").param("q", "Zanzibar embassy"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(taskId));
+
+        mockMvc.perform(put("/api/tasks/" + taskId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Renew passport\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/tasks/search").param("q", "zanzibar"))
+                .andExpect(jsonPath("$.total").value(0));
+
+        mockMvc.perform(delete("/api/tasks/" + taskId))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/tasks/search").param("q", "passport"))
+                .andExpect(jsonPath("$.items[?(@.id == " + taskId + ")]").isEmpty());
+    }
+
+    @Test
+    void shouldFilterByDueDateRangeAndListOverdueTasks() throws Exception {
+        Long early = createTask("{\"title\":\"Range early\", \"dueDate\":\"2041-03-01\"}");
+        Long inside = createTask("{\"title\":\"Range inside\", \"dueDate\":\"2041/03/03\"}");
+        Long late = createTask("{\"title\":\"Range late\", \"dueDate\":\"05.03.2041\"}");
+
+        mockMvc.perform(get("/api/tasks")
+                .param("dueAfter", "2041-03-01")
+                .param("dueBefore", "2041-03-05"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(inside))
+                .andExpect(jsonPath("$.items[0].dueDate").value("2041-03-03"));
+
+        Long overdue = createTask("{\"title\":\"Long overdue\", \"dueDate\":\"1990-01-01\"}");
+        Long done = createTask("{\"title\":\"Done long ago\", \"dueDate\":\"1990-01-01\", \"completed\":true}");
+
+        String page = mockMvc.perform(get("/api/tasks/overdue").param("limit", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(overdue))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        List<Integer> overdueIds = JsonPath.read(page, "$.items[*].id");
+        assertThat(overdueIds).doesNotContain(done.intValue(), early.intValue(), inside.intValue(), late.intValue());
+    }
+
+    private Long createTask(String json) throws Exception {
+        String response = mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return ((Integer) JsonPath.read(response, "$.id")).longValue();
+    }
 }
@@ -0,0 +1,92 @@
+package com.gamze.tdd_crud.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.gamze.tdd_crud.dto.TaskResponse;
+import com.gamze.tdd_crud.dto.TaskStats;
+import com.gamze.tdd_crud.entity.Task;
+import com.gamze.tdd_crud.service.TaskService;
+import com.gamze.tdd_crud.stats.TaskStatistics;
+
+/**
+ * Concurrent writers go through the real service and database; afterwards the counters must
+ * match what {@code COUNT(*)} reports, and reconciliation must find nothing to correct.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class TaskStatisticsIntegrationTest {
+    private static final int WRITERS = 8;
+    private static final int TASKS_PER_WRITER = 50;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskStatistics statistics;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldMatchDatabaseAfterConcurrentWrites() throws Exception {
+        LocalDate today = LocalDate.now();
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < TASKS_PER_WRITER; i++) {
+                        TaskResponse created = taskService.createTask(task(today.minusDays(i % 4), false));
+                        if (i % 2 == 0) {
+                            taskService.updateTask(created.id(), task(created.dueDate(), true), null);
+                        }
+                        if (i % 3 == 0) {
+                            taskService.deleteTask(created.id());
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        TaskStats stats = statistics.snapshot(today, 1);
+        assertThat(stats.total()).isEqualTo(count("SELECT COUNT(*) FROM tasks"));
+        assertThat(stats.completed()).isEqualTo(count("SELECT COUNT(*) FROM tasks WHERE completed"));
+        assertThat(stats.overdue()).isEqualTo(count(
+                "SELECT COUNT(*) FROM tasks WHERE NOT completed AND due_date < CURRENT_DATE"));
+        assertThat(stats.createdPerDay().get(today)).isEqualTo(count(
+                "SELECT COUNT(*) FROM tasks WHERE CAST(created_at AS DATE) = CURRENT_DATE"));
+
+        assertThat(statistics.reconcile()).isTrue();
+        assertThat(statistics.snapshot(today, 1)).isEqualTo(stats);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    private static Task task(LocalDate dueDate, boolean completed) {
+        Task task = new Task();
+        task.setTitle("Counted");
+        task.setDueDate(dueDate);
+        task.setCompleted(completed);
+        return task;
+    }
+}
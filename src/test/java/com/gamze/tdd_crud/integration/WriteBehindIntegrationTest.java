@@ -0,0 +1,103 @@
+package com.gamze.tdd_crud.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.gamze.tdd_crud.dto.TaskResponse;
+import com.gamze.tdd_crud.writebehind.TaskJournal;
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * Starts on a journal left behind by a crashed run: its tasks must be in the database before
+ * the first request, and new tasks must be readable as soon as the POST returns.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:writebehind;DB_CLOSE_DELAY=-1",
+        "tasks.write-behind.enabled=true",
+        "tasks.write-behind.segment-size=4KB"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class WriteBehindIntegrationTest {
+    private static final long CRASHED_ID = 1_000_000;
+    private static final int CRASHED_TASKS = 100;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void crashedJournal(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Files.createTempDirectory("task-journal");
+        TaskJournal journal = new TaskJournal(directory, 4096);
+        journal.recover(0);
+        for (int i = 1; i <= CRASHED_TASKS; i++) {
+            journal.append(new TaskResponse(CRASHED_ID + i, "Before crash " + i, null, LocalDate.of(2025, 1, 1),
+                    false, LocalDateTime.of(2025, 1, 1, 8, 0), 0L));
+        }
+        // Never closed or forced, as after a crash of the process.
+        registry.add("tasks.write-behind.journal-dir", directory::toString);
+    }
+
+    @Test
+    void shouldReplayJournalOfCrashedRun() {
+        List<String> titles = jdbcTemplate.queryForList(
+                "SELECT title FROM tasks WHERE id > ? ORDER BY id", String.class, CRASHED_ID);
+        assertThat(titles).hasSize(CRASHED_TASKS).startsWith("Before crash 1").endsWith("Before crash 100");
+        assertThat(jdbcTemplate.queryForObject("SELECT last_sequence FROM task_journal_checkpoint", Long.class))
+                .isGreaterThanOrEqualTo(CRASHED_TASKS);
+    }
+
+    @Test
+    void shouldReadOwnWritesBeforeTheyAreStored() throws Exception {
+        String response = mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Write behind\",\"dueDate\":\"2025-06-01\"}"))
+                .andExpect(status().isAccepted())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        long id = JsonPath.<Number>read(response, "$.id").longValue();
+        // Ids come from the sequence, which replay moved past the recovered tasks.
+        assertThat(id).isGreaterThan(CRASHED_ID + CRASHED_TASKS);
+
+        mockMvc.perform(get("/api/tasks/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Write behind"))
+                .andExpect(jsonPath("$.dueDate").value("2025-06-01"));
+
+        // An update waits until the row is stored instead of failing to find it.
+        mockMvc.perform(put("/api/tasks/" + id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Stored\",\"completed\":true}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT title FROM tasks WHERE id = ?", String.class, id))
+                .isEqualTo("Stored");
+    }
+}
@@ -0,0 +1,142 @@
+package com.gamze.tdd_crud.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.gamze.tdd_crud.TddCrudApplication;
+import com.gamze.tdd_crud.entity.Task;
+import com.gamze.tdd_crud.service.TaskService;
+
+/**
+ * Boots the application on a random port, seeds it and drives a {@link Workload} script
+ * against it with {@link LoadGenerator}. Fails when any request fails, when more than
+ * {@code loadtest.max-late-fraction} of the requests are answered later than
+ * {@code loadtest.late-threshold-ms} after their scheduled start, or when the p99 latency is
+ * more than {@code loadtest.tolerance} worse than the stored baseline for that script.
+ *
+ * <p>The generator sends at the scripted rate whatever the server does, so raw throughput only
+ * echoes that rate; the late fraction is what shows a server falling behind. A baseline is not
+ * recorded from a run that fell behind, since its p99 would include the backlog. Baselines
+ * depend on the machine, so record them where the gate runs.
+ */
+@Tag("loadtest")
+public class ApiLoadTest {
+    private static final Path BASELINE = Path.of("src/test/resources/loadtest/baseline.properties");
+    private static final Path REPORTS = Path.of("target/loadtest");
+    private static final int SEEDED_TASKS = 1_000;
+
+    @Test
+    void workloadStaysWithinBaseline() throws Exception {
+        Workload workload = Workload.load(System.getProperty("loadtest.script", "read-heavy"))
+                .scaled(Double.parseDouble(System.getProperty("loadtest.rate-factor", "1")));
+        double tolerance = Double.parseDouble(System.getProperty("loadtest.tolerance", "0.3"));
+        Duration lateThreshold = Duration.ofMillis(Long.getLong("loadtest.late-threshold-ms", 250));
+        double maxLateFraction = Double.parseDouble(System.getProperty("loadtest.max-late-fraction", "0.01"));
+
+        LoadGenerator.Result result;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TddCrudApplication.class)
+                .profiles(System.getProperty("loadtest.profiles", "perf").split(","))
+                .run("--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                        "--server.port=0",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN")) {
+            TaskService taskService = context.getBean(TaskService.class);
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < SEEDED_TASKS; i++) {
+                Task task = new Task();
+                task.setTitle("Seeded task " + i);
+                task.setDescription("Read and updated by the load test");
+                ids.add(taskService.createTask(task).id());
+            }
+            String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort()
+                    + "/api/tasks";
+            result = new LoadGenerator(base, ids, lateThreshold).run(workload);
+        }
+
+        report(workload.name(), result);
+        assertSoftly(softly -> {
+            softly.assertThat(result.errors.get()).as("failed requests").isZero();
+            softly.assertThat(result.onTimeRate()).as("requests per second answered within %d ms",
+                    lateThreshold.toMillis()).isGreaterThanOrEqualTo(result.scheduledRate() * (1 - maxLateFraction));
+        });
+
+        Map<String, String> baseline = readBaseline();
+        String p99Key = workload.name() + ".p99-ms";
+        if (Boolean.getBoolean("loadtest.update-baseline")) {
+            baseline.put(p99Key, String.format(Locale.ROOT, "%.1f", result.p99Millis()));
+            writeBaseline(baseline);
+            return;
+        }
+        assertThat(baseline).as("baseline for %s; record one with -Dloadtest.update-baseline=true",
+                workload.name()).containsKey(p99Key);
+        double p99Limit = Double.parseDouble(baseline.get(p99Key)) * (1 + tolerance);
+        assertThat(result.p99Millis()).as("p99 latency (ms)").isLessThanOrEqualTo(p99Limit);
+    }
+
+    /** Prints a summary and writes both latency distributions to {@code target/loadtest}. */
+    private static void report(String name, LoadGenerator.Result result) throws IOException {
+        System.out.printf("%s: %d requests, %d failed, %d late, %.1f req/s scheduled, %.1f req/s on time%n", name,
+                result.requests(), result.errors.get(), result.late.get(), result.scheduledRate(), result.onTimeRate());
+        printPercentiles("corrected", result.corrected);
+        printPercentiles("uncorrected", result.uncorrected);
+        result.byOperation.forEach((operation, histogram) -> printPercentiles(operation.name().toLowerCase(Locale.ROOT), histogram));
+
+        Files.createDirectories(REPORTS);
+        writeDistribution(REPORTS.resolve(name + ".hgrm"), result.corrected);
+        writeDistribution(REPORTS.resolve(name + ".uncorrected.hgrm"), result.uncorrected);
+    }
+
+    private static void printPercentiles(String label, Histogram histogram) {
+        System.out.printf("  %-11s p50 %8.2f ms  p90 %8.2f ms  p99 %8.2f ms  p99.9 %8.2f ms  max %8.2f ms%n",
+                label, histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(90) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0, histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    private static void writeDistribution(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private static Map<String, String> readBaseline() throws IOException {
+        Properties properties = new Properties();
+        if (Files.exists(BASELINE)) {
+            try (Reader reader = Files.newBufferedReader(BASELINE)) {
+                properties.load(reader);
+            }
+        }
+        Map<String, String> baseline = new TreeMap<>();
+        properties.stringPropertyNames().forEach(key -> baseline.put(key, properties.getProperty(key)));
+        return baseline;
+    }
+
+    /** Writes the keys sorted and without the timestamp {@link Properties#store} adds, to keep diffs small. */
+    private static void writeBaseline(Map<String, String> baseline) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("# Written by ApiLoadTest with -Dloadtest.update-baseline=true");
+        baseline.forEach((key, value) -> lines.add(key + "=" + value));
+        Files.write(BASELINE, lines);
+    }
+}
@@ -0,0 +1,172 @@
+package com.gamze.tdd_crud.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import com.gamze.tdd_crud.loadtest.Workload.Operation;
+import com.gamze.tdd_crud.loadtest.Workload.Phase;
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * Sends requests on a fixed schedule, whether or not earlier ones have been answered, so a
+ * slow server shows up as late requests rather than as fewer requests. Latency is measured from
+ * the time a request was scheduled to start, which corrects for coordinated omission. The time
+ * from the actual send is recorded as well, to show how much a closed-loop client would miss.
+ * A request answered more than {@code lateThreshold} after its scheduled start counts as
+ * late, so a server that falls behind shows up in the on-time rate, not only in the latency.
+ *
+ * <p>Reads and updates go to the seeded tasks; deletes only take tasks created during the run,
+ * so no request hits a task another one has removed.
+ */
+class LoadGenerator {
+    private static final long DRAIN_SECONDS = 60;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final String base;
+    private final List<Long> seeded;
+    private final Deque<Long> created = new ConcurrentLinkedDeque<>();
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final Duration lateThreshold;
+
+    LoadGenerator(String base, List<Long> seeded, Duration lateThreshold) {
+        this.base = base;
+        this.seeded = List.copyOf(seeded);
+        this.lateThreshold = lateThreshold;
+    }
+
+    Result run(Workload workload) throws Exception {
+        Result result = new Result(lateThreshold.toNanos());
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        long next = System.nanoTime();
+        for (Phase phase : workload.phases()) {
+            if (!phase.warmup() && result.start == 0) {
+                result.start = next;
+            }
+            long interval = TimeUnit.SECONDS.toNanos(1) / phase.rps();
+            for (long i = 0; i < phase.requests(); i++) {
+                long scheduled = next;
+                next += interval;
+                if (!phase.warmup()) {
+                    result.scheduledEnd = next;
+                }
+                long wait;
+                while ((wait = scheduled - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                pending.add(send(phase.pick(random), scheduled, phase.warmup() ? null : result));
+            }
+        }
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).get(DRAIN_SECONDS, TimeUnit.SECONDS);
+        return result;
+    }
+
+    private CompletableFuture<Void> send(Operation operation, long scheduled, Result result) {
+        Long deletable = operation == Operation.DELETE ? created.poll() : null;
+        Operation sent = operation == Operation.DELETE && deletable == null ? Operation.READ : operation;
+        HttpRequest request = switch (sent) {
+            case READ -> HttpRequest.newBuilder(uri("/" + seededId())).build();
+            case CREATE -> json("POST", "", "Load task");
+            case UPDATE -> json("PUT", "/" + seededId(), "Updated task");
+            case DELETE -> HttpRequest.newBuilder(uri("/" + deletable)).DELETE().build();
+        };
+        long sentAt = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).handle((response, failure) -> {
+            long done = System.nanoTime();
+            boolean ok = failure == null && response.statusCode() / 100 == 2;
+            if (ok && sent == Operation.CREATE) {
+                created.add(JsonPath.<Number>read(response.body(), "$.id").longValue());
+            }
+            if (result != null) {
+                result.record(sent, scheduled, sentAt, done, ok);
+            }
+            return null;
+        });
+    }
+
+    private long seededId() {
+        return seeded.get(random.nextInt(seeded.size()));
+    }
+
+    private URI uri(String path) {
+        return URI.create(base + path);
+    }
+
+    private HttpRequest json(String method, String path, String title) {
+        String body = """
+                {"title":"%s %d","description":"Generated by the load test","completed":%b}"""
+                .formatted(title, random.nextInt(1_000_000), random.nextBoolean());
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    /**
+     * Latencies in microseconds for the measured phases. {@link #corrected} is measured from the
+     * scheduled start, {@link #uncorrected} from the actual send.
+     */
+    static class Result {
+        final Histogram corrected = new ConcurrentHistogram(3);
+        final Histogram uncorrected = new ConcurrentHistogram(3);
+        final Map<Operation, Histogram> byOperation = Collections.synchronizedMap(new EnumMap<>(Operation.class));
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong late = new AtomicLong();
+        private final long lateNanos;
+        private volatile long start;
+        private volatile long scheduledEnd;
+
+        private Result(long lateNanos) {
+            this.lateNanos = lateNanos;
+        }
+
+        private void record(Operation operation, long scheduled, long sentAt, long done, boolean ok) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(done - scheduled);
+            corrected.recordValue(micros);
+            uncorrected.recordValue(TimeUnit.NANOSECONDS.toMicros(done - sentAt));
+            byOperation.computeIfAbsent(operation, o -> new ConcurrentHistogram(3)).recordValue(micros);
+            if (!ok) {
+                errors.incrementAndGet();
+            }
+            if (done - scheduled > lateNanos) {
+                late.incrementAndGet();
+            }
+        }
+
+        long requests() {
+            return corrected.getTotalCount();
+        }
+
+        /** Requests per second the script asked for in the measured phases. */
+        double scheduledRate() {
+            return requests() * 1e9 / (scheduledEnd - start);
+        }
+
+        /** Requests per second answered within the late threshold, over the scheduled time. */
+        double onTimeRate() {
+            return (requests() - late.get()) * 1e9 / (scheduledEnd - start);
+        }
+
+        /** 99th percentile from the scheduled start, in milliseconds. */
+        double p99Millis() {
+            return corrected.getValueAtPercentile(99) / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.gamze.tdd_crud.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * A load test script: phases run one after another, each at a fixed request rate with a
+ * weighted mix of operations. One phase per line:
+ *
+ * <pre>
+ * # [warmup] duration rps mix
+ * warmup 10s 200 read=90,create=5,update=5
+ * 30s    200 read=90,create=5,update=5
+ * </pre>
+ *
+ * Warm-up phases send traffic but are left out of the results.
+ */
+record Workload(String name, List<Phase> phases) {
+
+    enum Operation {
+        READ, CREATE, UPDATE, DELETE
+    }
+
+    record Phase(boolean warmup, Duration duration, int rps, Map<Operation, Integer> mix) {
+
+        long requests() {
+            return duration.toNanos() * rps / 1_000_000_000L;
+        }
+
+        Operation pick(RandomGenerator random) {
+            int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+            int roll = random.nextInt(total);
+            for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+                roll -= entry.getValue();
+                if (roll < 0) {
+                    return entry.getKey();
+                }
+            }
+            throw new IllegalStateException("Empty mix");
+        }
+    }
+
+    /**
+     * Reads {@code loadtest/<name>.workload} from the test resources, or a script
+     * file if {@code name} is a path to one.
+     */
+    static Workload load(String name) throws IOException {
+        Path file = Path.of(name);
+        if (Files.isRegularFile(file)) {
+            String fileName = file.getFileName().toString();
+            return parse(fileName.replaceFirst("\\.workload$", ""), Files.readString(file));
+        }
+        try (InputStream in = Workload.class.getResourceAsStream("/loadtest/" + name + ".workload")) {
+            if (in == null) {
+                throw new IllegalArgumentException("No workload script named " + name);
+            }
+            return parse(name, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    static Workload parse(String name, String script) {
+        List<Phase> phases = new ArrayList<>();
+        for (String line : script.lines().toList()) {
+            String content = line.replaceFirst("#.*", "").strip();
+            if (content.isEmpty()) {
+                continue;
+            }
+            List<String> fields = new ArrayList<>(List.of(content.split("\\s+")));
+            boolean warmup = fields.get(0).equals("warmup");
+            if (warmup) {
+                fields.remove(0);
+            }
+            if (fields.size() != 3) {
+                throw new IllegalArgumentException("Expected '[warmup] duration rps mix' but got: " + line);
+            }
+            phases.add(new Phase(warmup, DurationStyle.detectAndParse(fields.get(0)),
+                    Integer.parseInt(fields.get(1)), parseMix(fields.get(2))));
+        }
+        if (phases.stream().allMatch(Phase::warmup)) {
+            throw new IllegalArgumentException("Workload " + name + " has no measured phase");
+        }
+        return new Workload(name, List.copyOf(phases));
+    }
+
+    /**
+     * The same phases at {@code factor} times their rate. The name records the factor, so a
+     * scaled run is compared against its own baseline.
+     */
+    Workload scaled(double factor) {
+        if (factor == 1) {
+            return this;
+        }
+        return new Workload(name + "@" + factor + "x", phases.stream()
+                .map(phase -> new Phase(phase.warmup(), phase.duration(),
+                        Math.max(1, (int) Math.round(phase.rps() * factor)), phase.mix()))
+                .toList());
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] weight = part.split("=");
+            weights.put(Operation.valueOf(weight[0].toUpperCase(Locale.ROOT)), Integer.parseInt(weight[1]));
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("Mix has no weight: " + mix);
+        }
+        return weights;
+    }
+}
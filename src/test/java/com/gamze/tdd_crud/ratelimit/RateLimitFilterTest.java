@@ -0,0 +1,137 @@
+package com.gamze.tdd_crud.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+public class RateLimitFilterTest {
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldRejectRequestsOverTheBurstWithRetryAfter() throws Exception {
+        RateLimitFilter filter = filter(true, 0.5, 2);
+
+        assertThat(send(filter, "10.0.0.1", null).getStatus()).isEqualTo(200);
+        assertThat(send(filter, "10.0.0.1", null).getStatus()).isEqualTo(200);
+        MockHttpServletResponse rejected = send(filter, "10.0.0.1", null);
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(rejected.getContentType()).isEqualTo("application/problem+json");
+        assertThat(rejected.getContentAsString()).contains("\"status\":429").doesNotContain("properties");
+        assertThat(meterRegistry.get("tasks.rate.limited").counter().count()).isEqualTo(1.0);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertThat(send(filter, "10.0.0.1", null).getStatus()).isEqualTo(200);
+        assertThat(send(filter, "10.0.0.1", null).getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void shouldKeepSeparateBucketsPerApiKeyAndAddress() throws Exception {
+        RateLimitFilter filter = filter(true, 1, 1);
+
+        assertThat(send(filter, "10.0.0.1", null).getStatus()).isEqualTo(200);
+        assertThat(send(filter, "10.0.0.1", null).getStatus()).isEqualTo(429);
+        assertThat(send(filter, "10.0.0.2", null).getStatus()).isEqualTo(200);
+        assertThat(send(filter, "10.0.0.1", "alice").getStatus()).isEqualTo(200);
+        assertThat(send(filter, "10.0.0.2", "alice").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void shouldLimitUnknownApiKeysByAddress() throws Exception {
+        RateLimitFilter filter = filter(true, 1, 1);
+
+        assertThat(send(filter, "10.0.0.1", "mallory-1").getStatus()).isEqualTo(200);
+        assertThat(send(filter, "10.0.0.1", "mallory-2").getStatus()).isEqualTo(429);
+        assertThat(send(filter, "10.0.0.1", null).getStatus()).isEqualTo(429);
+        assertThat(filter.trackedClients()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldLetEverythingThroughWhenDisabledOrOutsideTheApi() throws Exception {
+        RateLimitFilter disabled = filter(false, 1, 1);
+        RateLimitFilter enabled = filter(true, 1, 1);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(send(disabled, "10.0.0.1", null).getStatus()).isEqualTo(200);
+            MockHttpServletRequest health = new MockHttpServletRequest("GET", "/actuator/health");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            enabled.doFilter(health, response, new MockFilterChain());
+            assertThat(response.getStatus()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void shouldForgetIdleClients() throws Exception {
+        RateLimitFilter filter = filter(true, 1, 1);
+        for (int i = 0; i < 100; i++) {
+            send(filter, "10.0.1." + i, null);
+        }
+        assertThat(filter.trackedClients()).isEqualTo(100);
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(11));
+
+        assertThat(filter.trackedClients()).isZero();
+    }
+
+    @Test
+    void shouldHandOutExactlyTheBurstUnderContention() throws Exception {
+        RateLimitFilter filter = filter(true, 1, 500);
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < 2000; i++) {
+                pool.execute(() -> {
+                    try {
+                        start.await();
+                        if (send(filter, "10.0.0.1", null).getStatus() == 200) {
+                            admitted.incrementAndGet();
+                        }
+                    } catch (Exception ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            pool.shutdown();
+            assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(admitted.get()).isEqualTo(500);
+    }
+
+    private RateLimitFilter filter(boolean enabled, double requestsPerSecond, int burst) {
+        return new RateLimitFilter(JsonMapper.builder().build(), meterRegistry, enabled, requestsPerSecond, burst,
+                10_000, Duration.ofMinutes(10), Set.of("alice"), clock::get);
+    }
+
+    private static MockHttpServletResponse send(RateLimitFilter filter, String address, String apiKey)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks/1");
+        request.setRemoteAddr(address);
+        if (apiKey != null) {
+            request.addHeader(RateLimitFilter.API_KEY_HEADER, apiKey);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,34 @@
+package com.gamze.tdd_crud.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class ForwardIndexTest {
+
+    @Test
+    void shouldBehaveLikeAMapUnderRandomPutsAndRemoves() {
+        ForwardIndex index = new ForwardIndex();
+        Map<Long, int[]> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 50_000; i++) {
+            long id = random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                assertThat(index.remove(id)).isEqualTo(expected.remove(id));
+            } else {
+                int[] terms = random.ints(random.nextInt(5), 0, 100).toArray();
+                index.put(id, terms);
+                expected.put(id, terms);
+            }
+        }
+
+        assertThat(index.size()).isEqualTo(expected.size());
+        expected.forEach((id, terms) -> assertThat(index.remove(id)).isEqualTo(terms));
+        assertThat(index.size()).isZero();
+    }
+}
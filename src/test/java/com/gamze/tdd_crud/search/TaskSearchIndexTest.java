@@ -0,0 +1,109 @@
+package com.gamze.tdd_crud.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.gamze.tdd_crud.dto.TaskResponse;
+import com.gamze.tdd_crud.event.TaskChangedEvent;
+import com.gamze.tdd_crud.repository.TaskRepository;
+
+public class TaskSearchIndexTest {
+    private TaskSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TaskSearchIndex(null);
+        index.onTaskChanged(TaskChangedEvent.created(task(1L, "Buy milk", "From the corner shop")));
+        index.onTaskChanged(TaskChangedEvent.created(task(2L, "Write report", "Quarterly report about milk prices")));
+        index.onTaskChanged(TaskChangedEvent.created(task(3L, "Call the plumber", null)));
+    }
+
+    @Test
+    void shouldRankTitleMatchesAboveDescriptionMatches() {
+        TaskSearchIndex.Result result = index.search("MILK", 10);
+
+        assertThat(result.ids()).containsExactly(1L, 2L);
+        assertThat(result.total()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRankTasksMatchingMoreTermsFirst() {
+        TaskSearchIndex.Result result = index.search("plumber report milk", 10);
+
+        assertThat(result.ids()).startsWith(2L);
+        assertThat(result.total()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldLimitResultsButCountAllMatches() {
+        TaskSearchIndex.Result result = index.search("milk", 1);
+
+        assertThat(result.ids()).containsExactly(1L);
+        assertThat(result.total()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldReplaceTermsOnUpdate() {
+        index.onTaskChanged(TaskChangedEvent.updated(
+                task(1L, "Buy milk", "From the corner shop"), task(1L, "Buy bread", null)));
+
+        assertThat(index.search("milk", 10).ids()).containsExactly(2L);
+        assertThat(index.search("bread", 10).ids()).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldForgetDeletedTasks() {
+        index.onTaskChanged(TaskChangedEvent.deleted(task(3L, "Call the plumber", null)));
+
+        assertThat(index.search("plumber", 10).total()).isZero();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldKeepServingAndApplyChangesMadeDuringARebuild() {
+        TaskRepository taskRepository = mock(TaskRepository.class);
+        TaskSearchIndex rebuilt = new TaskSearchIndex(taskRepository);
+        rebuilt.onTaskChanged(TaskChangedEvent.created(task(1L, "Buy milk", null)));
+        given(taskRepository.forEachTask(any())).will(invocation -> {
+            Consumer<TaskResponse> action = invocation.getArgument(0);
+            action.accept(task(1L, "Buy milk", null));
+            // Another request thread writes and searches while the table is being read.
+            CompletableFuture<Void> write = CompletableFuture.runAsync(() -> {
+                rebuilt.onTaskChanged(TaskChangedEvent.created(task(2L, "Buy bread", null)));
+                assertThat(rebuilt.search("milk", 10).ids()).containsExactly(1L);
+            });
+            write.get(5, TimeUnit.SECONDS);
+            return 1L;
+        });
+
+        rebuilt.rebuild();
+
+        assertThat(rebuilt.search("buy", 10).ids()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(rebuilt.size()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldSplitOnNonWordCharacters() {
+        assertThat(TaskSearchIndex.tokenize("Re-check: TDD, tdd & v2!", 1))
+                .containsEntry("re", 1)
+                .containsEntry("check", 1)
+                .containsEntry("tdd", 2)
+                .containsEntry("v2", 1)
+                .hasSize(4);
+    }
+
+    private static TaskResponse task(Long id, String title, String description) {
+        return new TaskResponse(id, title, description, null, false, LocalDateTime.now(), 0L);
+    }
+}
@@ -0,0 +1,140 @@
+package com.gamze.tdd_crud.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.gamze.tdd_crud.dto.BatchItemResult;
+import com.gamze.tdd_crud.dto.ImportSummary;
+import com.gamze.tdd_crud.dto.ImportSummary.RejectedLine;
+import com.gamze.tdd_crud.entity.Task;
+
+import tools.jackson.databind.json.JsonMapper;
+
+public class TaskImportServiceTest {
+    private TaskService taskService;
+    private TaskImportService taskImportService;
+    private final List<List<String>> committedChunks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        taskService = mock(TaskService.class);
+        taskImportService = new TaskImportService(taskService, JsonMapper.builder().build(), 2, 64);
+
+        // Mirrors TaskService.createTasks: blank titles are rejected, the rest are created.
+        given(taskService.createTasks(anyList())).will(invocation -> {
+            List<Task> chunk = invocation.getArgument(0);
+            committedChunks.add(chunk.stream().map(Task::getTitle).toList());
+            List<BatchItemResult> results = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                String title = chunk.get(i).getTitle();
+                results.add(title == null || title.isBlank()
+                        ? BatchItemResult.invalid(i, null, "Task title cannot be null or empty")
+                        : BatchItemResult.success(i, (long) i, BatchItemResult.Status.CREATED));
+            }
+            return results;
+        });
+    }
+
+    @Test
+    void shouldImportNdjsonInChunks() throws IOException {
+        ImportSummary summary = taskImportService.importNdjson(stream("""
+                {"title":"One"}
+                {"title":"Two","completed":true}
+
+                {"title":"Three"}
+                """));
+
+        assertThat(summary.imported()).isEqualTo(3);
+        assertThat(summary.rejected()).isZero();
+        assertThat(committedChunks).containsExactly(List.of("One", "Two"), List.of("Three"));
+    }
+
+    @Test
+    void shouldReportMalformedAndInvalidLines() throws IOException {
+        ImportSummary summary = taskImportService.importNdjson(stream("""
+                {"title":"One"}
+                {"title":
+                {"title":""}
+                """));
+
+        assertThat(summary.imported()).isEqualTo(1);
+        assertThat(summary.rejected()).isEqualTo(2);
+        assertThat(summary.rejections()).extracting(RejectedLine::line).containsExactly(2L, 3L);
+        assertThat(summary.rejections().get(1).error()).isEqualTo("Task title cannot be null or empty");
+    }
+
+    @Test
+    void shouldImportCsvWithQuotedFields() throws IOException {
+        ImportSummary summary = taskImportService.importCsv(stream("""
+                completed,title,description
+                true,"Buy milk, eggs","Say ""please\""\"
+                false,"unterminated
+                """));
+
+        assertThat(summary.imported()).isEqualTo(1);
+        assertThat(summary.rejections()).containsExactly(
+                new RejectedLine(3, "Malformed CSV: unterminated quoted field"));
+        verify(taskService, times(1)).createTasks(anyList());
+        assertThat(committedChunks).containsExactly(List.of("Buy milk, eggs"));
+    }
+
+    @Test
+    void shouldRejectLinesOverTheLengthLimitWithoutHoldingThem() throws IOException {
+        String longTitle = "x".repeat(1_000);
+        ImportSummary summary = taskImportService.importNdjson(stream(
+                "{\"title\":\"One\"}\r\n{\"title\":\"" + longTitle + "\"}\r\n{\"title\":\"Three\"}"));
+
+        assertThat(summary.imported()).isEqualTo(2);
+        assertThat(summary.rejections()).containsExactly(new RejectedLine(2, "Line is longer than 64 characters"));
+        assertThat(committedChunks).containsExactly(List.of("One", "Three"));
+    }
+
+    @Test
+    void shouldRejectCompletedValuesOtherThanTrueOrFalse() throws IOException {
+        ImportSummary summary = taskImportService.importCsv(stream("""
+                title,completed
+                One,TRUE
+                Two,yes
+                Three,
+                Four,1
+                """));
+
+        assertThat(summary.imported()).isEqualTo(2);
+        assertThat(summary.rejections()).containsExactly(
+                new RejectedLine(3, "Invalid completed value 'yes', expected true or false"),
+                new RejectedLine(5, "Invalid completed value '1', expected true or false"));
+        assertThat(committedChunks).containsExactly(List.of("One", "Three"));
+    }
+
+    @Test
+    void shouldRequireTitleColumnInCsvHeader() {
+        assertThatThrownBy(() -> taskImportService.importCsv(stream("name,description\n")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("'title' column");
+    }
+
+    @Test
+    void shouldSplitCsvLine() {
+        assertThat(TaskImportService.parseCsvLine("a,\"b,c\",,\"d\"\"e\""))
+                .containsExactly("a", "b,c", "", "d\"e");
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
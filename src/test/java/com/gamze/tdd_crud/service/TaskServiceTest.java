@@ -3,20 +3,50 @@ package com.gamze.tdd_crud.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.gamze.tdd_crud.dto.BatchItemResult;
+import com.gamze.tdd_crud.dto.BatchItemResult.Status;
+import com.gamze.tdd_crud.dto.DueDateCursor;
+import com.gamze.tdd_crud.dto.TaskCursor;
+import com.gamze.tdd_crud.dto.TaskFilter;
+import com.gamze.tdd_crud.dto.TaskPage;
+import com.gamze.tdd_crud.dto.TaskResponse;
+import com.gamze.tdd_crud.dto.TaskSearchPage;
+import com.gamze.tdd_crud.dto.TaskStats;
 import com.gamze.tdd_crud.entity.Task;
+import com.gamze.tdd_crud.event.TaskChangedEvent;
+import com.gamze.tdd_crud.exception.TaskNotFoundException;
+import com.gamze.tdd_crud.exception.TaskVersionMismatchException;
+import com.gamze.tdd_crud.purge.TombstonePurger;
 import com.gamze.tdd_crud.repository.TaskRepository;
+import com.gamze.tdd_crud.stats.TaskStatistics;
+import com.gamze.tdd_crud.search.TaskSearchIndex;
+import com.gamze.tdd_crud.writebehind.TaskWriteBehind;
 
 @ExtendWith(MockitoExtension.class)
 public class TaskServiceTest {
@@ -24,6 +54,24 @@ public class TaskServiceTest {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private TaskSearchIndex searchIndex;
+
+    @Mock
+    private TaskStatistics statistics;
+
+    @Mock
+    private TaskWriteBehind writeBehind;
+
+    @Mock
+    private TombstonePurger tombstones;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private TaskService taskService;
 
@@ -32,19 +80,53 @@ public class TaskServiceTest {
         Task task = new Task();
         task.setTitle("Finish the project");
         task.setDescription("Complete the TDD CRUD application by end of the week");
-        task.setDueDate("2024-12-14");
+        task.setDueDate(LocalDate.of(2024, 12, 14));
         task.setCompleted(false);
 
         given(taskRepository.save(any(Task.class))).willReturn(task);
 
-        Task savedTask = taskService.createTask(task);
+        TaskResponse savedTask = taskService.createTask(task);
 
         assertThat(savedTask).isNotNull();
-        assertThat(savedTask.getTitle()).isEqualTo("Finish the project");
-        assertThat(savedTask.getDescription()).isEqualTo("Complete the TDD CRUD application by end of the week");
-        assertThat(savedTask.getDueDate()).isEqualTo("2024-12-14");
-        assertThat(savedTask.isCompleted()).isFalse();
-        assertThat(savedTask.getCreatedAt()).isNotNull();
+        assertThat(savedTask.title()).isEqualTo("Finish the project");
+        assertThat(savedTask.description()).isEqualTo("Complete the TDD CRUD application by end of the week");
+        assertThat(savedTask.dueDate()).isEqualTo(LocalDate.of(2024, 12, 14));
+        assertThat(savedTask.completed()).isFalse();
+        assertThat(savedTask.createdAt()).isNotNull();
+    }
+
+    @Test
+    void shouldJournalTaskInWriteBehindMode() {
+        Task task = new Task();
+        task.setTitle("Later");
+        TaskResponse journaled = new TaskResponse(7L, "Later", null, null, false, task.getCreatedAt(), 0L);
+        given(writeBehind.isEnabled()).willReturn(true);
+        given(writeBehind.append(task)).willReturn(journaled);
+
+        assertThat(taskService.createTask(task)).isEqualTo(journaled);
+        verify(taskRepository, never()).save(any(Task.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void shouldReadPendingTaskBeforeItIsStored() {
+        TaskResponse journaled = new TaskResponse(7L, "Later", null, null, false, LocalDateTime.now(), 0L);
+        given(writeBehind.pending(7L)).willReturn(journaled);
+
+        assertThat(taskService.getTaskById(7L)).isEqualTo(journaled);
+        verify(taskRepository, never()).findResponseById(7L);
+    }
+
+    @Test
+    void shouldWaitForPendingTaskBeforeDeletingIt() {
+        given(taskRepository.deleteTaskById(7L)).willReturn(Optional.of(
+                new TaskResponse(7L, "Later", null, null, false, LocalDateTime.now(), 0L)));
+
+        taskService.deleteTask(7L);
+
+        InOrder inOrder = inOrder(writeBehind, taskRepository);
+        inOrder.verify(writeBehind).awaitStored(7L);
+        inOrder.verify(taskRepository).deleteTaskById(7L);
     }
 
     @Test
@@ -63,47 +145,43 @@ public class TaskServiceTest {
         task.setId(1L);
         task.setTitle("Read the book");
 
-        given(taskRepository.findById(1L)).willReturn(Optional.of(task));
+        given(taskRepository.findResponseById(1L)).willReturn(Optional.of(TaskResponse.from(task)));
 
-        Task foundTask = taskService.getTaskById(1L);
+        TaskResponse foundTask = taskService.getTaskById(1L);
         assertThat(foundTask).isNotNull();
-        assertThat(foundTask.getId()).isEqualTo(1L);
-        assertThat(foundTask.getTitle()).isEqualTo("Read the book");
+        assertThat(foundTask.id()).isEqualTo(1L);
+        assertThat(foundTask.title()).isEqualTo("Read the book");
     }
 
     @Test
     void shouldThrowExceptionWhenTaskNotFound() {
-        given(taskRepository.findById(1L)).willReturn(Optional.empty());
+        given(taskRepository.findResponseById(1L)).willReturn(Optional.empty());
 
         assertThatThrownBy(() -> taskService.getTaskById(1L))
-            .isInstanceOf(RuntimeException.class)
+            .isInstanceOf(TaskNotFoundException.class)
             .hasMessageContaining("Task not found with id: 1");
     }
 
     @Test
     void shouldUpdateTaskSuccessfully() {
-        Task existingTask = new Task();
-        existingTask.setId(1L);
-        existingTask.setTitle("Old Title");
-        existingTask.setDescription("Old Description");
-        existingTask.setDueDate("2024-12-14");
-        existingTask.setCompleted(true);
+        TaskResponse previous = new TaskResponse(1L, "Old Title", null, null, false,
+                LocalDateTime.of(2024, 12, 1, 9, 0), 3L);
 
         Task updatedTask = new Task();
         updatedTask.setTitle("New Title");
         updatedTask.setDescription("New Description");
-        updatedTask.setDueDate("2024-12-20");
+        updatedTask.setDueDate(LocalDate.of(2024, 12, 20));
         updatedTask.setCompleted(true);
 
-        given(taskRepository.findById(1L)).willReturn(Optional.of(existingTask));
-        given(taskRepository.save(any(Task.class))).willReturn(existingTask);
+        given(taskRepository.updateFields(1L, null, "New Title", "New Description", LocalDate.of(2024, 12, 20), true))
+                .willReturn(Optional.of(previous));
 
-        Task result = taskService.updateTask(1L, updatedTask);
+        TaskResponse result = taskService.updateTask(1L, updatedTask, null);
 
-        assertThat(result).isNotNull();
-        assertThat(result.getTitle()).isEqualTo("New Title");
-        assertThat(result.getDescription()).isEqualTo("New Description");
-        assertThat(result.isCompleted()).isTrue();
+        assertThat(result).isEqualTo(new TaskResponse(1L, "New Title", "New Description",
+                LocalDate.of(2024, 12, 20), true, LocalDateTime.of(2024, 12, 1, 9, 0), 4L));
+        verify(taskRepository, never()).findById(any());
+        verify(eventPublisher).publishEvent(TaskChangedEvent.updated(previous, result));
     }
 
     @Test
@@ -111,13 +189,25 @@ public class TaskServiceTest {
         Task updatedTask = new Task();
         updatedTask.setTitle("New Title");
 
-        given(taskRepository.findById(1L)).willReturn(Optional.empty());
+        given(taskRepository.updateFields(1L, null, "New Title", null, null, false)).willReturn(Optional.empty());
 
-        assertThatThrownBy(() -> taskService.updateTask(1L, updatedTask))
-            .isInstanceOf(RuntimeException.class)
+        assertThatThrownBy(() -> taskService.updateTask(1L, updatedTask, null))
+            .isInstanceOf(TaskNotFoundException.class)
             .hasMessageContaining("Task not found with id: 1");
     }
 
+    @Test
+    void shouldThrowVersionMismatchWhenExpectedVersionIsStale() {
+        Task updatedTask = new Task();
+        updatedTask.setTitle("New Title");
+
+        given(taskRepository.updateFields(1L, 2L, "New Title", null, null, false)).willReturn(Optional.empty());
+        given(taskRepository.existsById(1L)).willReturn(true);
+
+        assertThatThrownBy(() -> taskService.updateTask(1L, updatedTask, 2L))
+            .isInstanceOf(TaskVersionMismatchException.class);
+    }
+
     @Test
     void shouldThrowExceptionWhenUpdatingWithNullTitle() {
         Task existingTask = new Task();
@@ -127,30 +217,242 @@ public class TaskServiceTest {
         Task updatedTask = new Task();
         updatedTask.setTitle(null);
 
-        assertThatThrownBy(() -> taskService.updateTask(1L, updatedTask))
+        assertThatThrownBy(() -> taskService.updateTask(1L, updatedTask, null))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Task title cannot be null or empty");
     }
 
     @Test
     void shouldDeleteTaskSuccessfully() {
-        Task task = new Task();
-        task.setId(1L);
-        task.setTitle("Finish the project");
+        TaskResponse previous = new TaskResponse(1L, "Done", null, null, true, LocalDateTime.now(), 0L);
+        given(taskRepository.deleteTaskById(1L)).willReturn(Optional.of(previous));
+
+        taskService.deleteTask(1L);
+
+        verify(taskRepository, times(1)).deleteTaskById(1L);
+        verify(taskRepository, never()).findById(any());
+        verify(eventPublisher).publishEvent(TaskChangedEvent.deleted(previous));
+    }
+
+    @Test
+    void shouldLeaveTombstoneInSoftDeleteMode() {
+        TaskResponse previous = new TaskResponse(1L, "Done", null, null, true, LocalDateTime.now(), 0L);
+        given(tombstones.isSoftDeleteEnabled()).willReturn(true);
+        given(taskRepository.softDeleteTaskById(eq(1L), any(LocalDateTime.class))).willReturn(Optional.of(previous));
 
-        given(taskRepository.findById(1L)).willReturn(Optional.of(task));
-        
         taskService.deleteTask(1L);
 
-        verify(taskRepository, times(1)).delete(task);
-    } 
+        verify(taskRepository, never()).deleteTaskById(any());
+        verify(eventPublisher).publishEvent(TaskChangedEvent.deleted(previous));
+    }
 
     @Test
     void shouldThrowExceptionWhenDeletingNonExistentTask() {
-        given(taskRepository.findById(1L)).willReturn(Optional.empty());
+        given(taskRepository.deleteTaskById(1L)).willReturn(Optional.empty());
 
         assertThatThrownBy(() -> taskService.deleteTask(1L))
-                .isInstanceOf(RuntimeException.class)
+                .isInstanceOf(TaskNotFoundException.class)
                 .hasMessageContaining("Task not found with id: 1");
     }
+
+    @Test
+    void shouldReturnNextCursorWhenMoreTasksExist() {
+        Task first = new Task();
+        first.setId(1L);
+        Task second = new Task();
+        second.setId(2L);
+        Task third = new Task();
+        third.setId(3L);
+
+        given(taskRepository.findPage(TaskFilter.none(), null, 3)).willReturn(
+                List.of(TaskResponse.from(first), TaskResponse.from(second), TaskResponse.from(third)));
+
+        TaskPage page = taskService.listTasks(TaskFilter.none(), null, 2);
+
+        assertThat(page.items()).containsExactly(TaskResponse.from(first), TaskResponse.from(second));
+        assertThat(TaskCursor.decode(page.nextCursor())).isEqualTo(TaskCursor.of(TaskResponse.from(second)));
+    }
+
+    @Test
+    void shouldReturnNoCursorOnLastPage() {
+        Task task = new Task();
+        task.setId(1L);
+        TaskCursor after = new TaskCursor(task.getCreatedAt().minusDays(1), 7L);
+        TaskFilter filter = new TaskFilter(true, LocalDate.of(2024, 12, 14), null, null);
+
+        given(taskRepository.findPage(filter, after, 3)).willReturn(List.of(TaskResponse.from(task)));
+
+        TaskPage page = taskService.listTasks(filter, after.encode(), 2);
+
+        assertThat(page.items()).containsExactly(TaskResponse.from(task));
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void shouldPageOverdueTasksByDueDate() {
+        Task first = new Task();
+        first.setId(5L);
+        first.setDueDate(LocalDate.of(2020, 1, 1));
+        Task second = new Task();
+        second.setId(2L);
+        second.setDueDate(LocalDate.of(2021, 6, 30));
+
+        given(taskRepository.findOverdue(LocalDate.now(), null, 2))
+                .willReturn(List.of(TaskResponse.from(first), TaskResponse.from(second)));
+
+        TaskPage page = taskService.listOverdueTasks(null, 1);
+
+        assertThat(page.items()).containsExactly(TaskResponse.from(first));
+        assertThat(DueDateCursor.decode(page.nextCursor())).isEqualTo(new DueDateCursor(LocalDate.of(2020, 1, 1), 5L));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenPageLimitIsOutOfRange() {
+        assertThatThrownBy(() -> taskService.listTasks(TaskFilter.none(), null, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Page limit must be between 1 and 100");
+    }
+
+    @Test
+    void shouldThrowExceptionWhenCursorIsMalformed() {
+        assertThatThrownBy(() -> taskService.listTasks(TaskFilter.none(), "not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+
+    @Test
+    void shouldCreateValidTasksInBatchAndRejectInvalidOnes() {
+        Task valid = new Task();
+        valid.setTitle("Valid");
+        Task invalid = new Task();
+        invalid.setTitle(" ");
+
+        given(taskRepository.saveAll(List.of(valid))).will(invocation -> {
+            valid.setId(10L);
+            return List.of(valid);
+        });
+
+        List<BatchItemResult> results = taskService.createTasks(List.of(invalid, valid));
+
+        assertThat(results).containsExactly(
+                BatchItemResult.invalid(0, null, "Task title cannot be null or empty"),
+                BatchItemResult.success(1, 10L, Status.CREATED));
+    }
+
+    @Test
+    void shouldUpdateExistingTasksInBatchAndReportMissingOnes() {
+        Task existingTask = new Task();
+        existingTask.setId(1L);
+        existingTask.setTitle("Old Title");
+
+        Task update = new Task();
+        update.setId(1L);
+        update.setTitle("New Title");
+        Task missing = new Task();
+        missing.setId(2L);
+        missing.setTitle("Missing");
+
+        given(taskRepository.findAllById(List.of(1L, 2L))).willReturn(List.of(existingTask));
+        TaskResponse previous = TaskResponse.from(existingTask);
+
+        List<BatchItemResult> results = taskService.updateTasks(List.of(update, missing));
+
+        assertThat(results).containsExactly(
+                BatchItemResult.success(0, 1L, Status.UPDATED),
+                BatchItemResult.notFound(1, 2L));
+        assertThat(existingTask.getTitle()).isEqualTo("New Title");
+        verify(eventPublisher).publishEvent(TaskChangedEvent.updated(previous, TaskResponse.from(existingTask)));
+    }
+
+    @Test
+    void shouldDeleteExistingTasksInBatch() {
+        TaskResponse existing = new TaskResponse(1L, "Existing", null, null, false, LocalDateTime.now(), 0L);
+        given(taskRepository.findResponsesByIdIn(List.of(1L, 2L))).willReturn(List.of(existing));
+
+        List<BatchItemResult> results = taskService.deleteTasks(List.of(1L, 2L));
+
+        verify(taskRepository, times(1)).deleteAllByIdInBatch(Set.of(1L));
+        verify(eventPublisher).publishEvent(TaskChangedEvent.deleted(existing));
+        assertThat(results).containsExactly(
+                BatchItemResult.success(0, 1L, Status.DELETED),
+                BatchItemResult.notFound(1, 2L));
+    }
+
+    @Test
+    void shouldReportNullBatchEntriesAsInvalid() {
+        Task valid = new Task();
+        valid.setTitle("Valid");
+        given(taskRepository.saveAll(List.of(valid))).will(invocation -> {
+            valid.setId(10L);
+            return List.of(valid);
+        });
+        TaskResponse existing = new TaskResponse(2L, "Existing", null, null, false, LocalDateTime.now(), 0L);
+        given(taskRepository.findResponsesByIdIn(List.of(2L))).willReturn(List.of(existing));
+
+        assertThat(taskService.createTasks(Arrays.asList(null, valid))).containsExactly(
+                BatchItemResult.invalid(0, null, "Batch entry cannot be null"),
+                BatchItemResult.success(1, 10L, Status.CREATED));
+        assertThat(taskService.updateTasks(Arrays.asList((Task) null))).containsExactly(
+                BatchItemResult.invalid(0, null, "Batch entry cannot be null"));
+        assertThat(taskService.deleteTasks(Arrays.asList(null, 2L))).containsExactly(
+                BatchItemResult.invalid(0, null, "Batch entry cannot be null"),
+                BatchItemResult.success(1, 2L, Status.DELETED));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenBatchIsTooLarge() {
+        List<Long> ids = LongStream.rangeClosed(1, 1001).boxed().toList();
+
+        assertThatThrownBy(() -> taskService.deleteTasks(ids))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Batch size cannot exceed 1000");
+    }
+
+    @Test
+    void shouldServeStatsFromCounters() {
+        TaskStats stats = new TaskStats(3, 1, 2, 1, Map.of());
+        given(statistics.snapshot(LocalDate.now(), 7)).willReturn(stats);
+
+        assertThat(taskService.getStats(7)).isSameAs(stats);
+        verify(taskRepository, never()).count();
+    }
+
+    @Test
+    void shouldThrowExceptionWhenStatsDaysAreOutOfRange() {
+        assertThatThrownBy(() -> taskService.getStats(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Stats days must be between 1 and 366");
+    }
+
+    @Test
+    void shouldExportTasksThroughRepositoryCursor() {
+        Consumer<TaskResponse> sink = task -> {};
+        given(taskRepository.forEachTask(sink)).willReturn(3L);
+
+        assertThat(taskService.exportTasks(sink)).isEqualTo(3L);
+    }
+
+    @Test
+    void shouldReturnSearchHitsInRankOrder() {
+        Task first = new Task();
+        first.setId(7L);
+        Task second = new Task();
+        second.setId(3L);
+        given(searchIndex.search("milk", 3)).willReturn(new TaskSearchIndex.Result(List.of(9L, 7L, 3L), 5));
+        given(taskRepository.findResponsesByIdIn(List.of(7L, 3L)))
+                .willReturn(List.of(TaskResponse.from(second), TaskResponse.from(first)));
+
+        TaskSearchPage page = taskService.searchTasks("milk", 1, 2);
+
+        assertThat(page.items()).containsExactly(TaskResponse.from(first), TaskResponse.from(second));
+        assertThat(page.total()).isEqualTo(5);
+        assertThat(page.nextOffset()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenSearchQueryIsBlank() {
+        assertThatThrownBy(() -> taskService.searchTasks(" ", 0, 20))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Search query cannot be empty");
+    }
 }
@@ -0,0 +1,195 @@
+package com.gamze.tdd_crud.stats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+
+import com.gamze.tdd_crud.dto.DateCount;
+import com.gamze.tdd_crud.dto.TaskCounts;
+import com.gamze.tdd_crud.dto.TaskResponse;
+import com.gamze.tdd_crud.dto.TaskStats;
+import com.gamze.tdd_crud.event.TaskChangedEvent;
+import com.gamze.tdd_crud.repository.TaskRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class TaskStatisticsTest {
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 10);
+
+    private TaskRepository taskRepository;
+    private MeterRegistry meterRegistry;
+    private TaskStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = mock(TaskRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        // Retries run straight away instead of after their delay.
+        TaskScheduler scheduler = mock(TaskScheduler.class);
+        given(scheduler.schedule(any(Runnable.class), any(Instant.class))).willAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        });
+        statistics = new TaskStatistics(taskRepository, scheduler, meterRegistry, Duration.ofMillis(100), 3);
+    }
+
+    @Test
+    void shouldFollowCompletionAndDueDateChanges() {
+        TaskResponse open = task(1L, false, TODAY.minusDays(2));
+        statistics.onTaskChanged(TaskChangedEvent.created(open));
+        statistics.onTaskChanged(TaskChangedEvent.created(task(2L, false, TODAY.plusDays(1))));
+        statistics.onTaskChanged(TaskChangedEvent.created(task(3L, false, null)));
+
+        assertThat(statistics.snapshot(TODAY, 1)).isEqualTo(
+                new TaskStats(3, 0, 3, 1, Map.of(TODAY, 3L)));
+
+        TaskResponse done = task(1L, true, TODAY.minusDays(2));
+        statistics.onTaskChanged(TaskChangedEvent.updated(open, done));
+        statistics.onTaskChanged(TaskChangedEvent.deleted(task(3L, false, null)));
+
+        TaskStats stats = statistics.snapshot(TODAY, 1);
+        assertThat(stats.total()).isEqualTo(2);
+        assertThat(stats.completed()).isEqualTo(1);
+        assertThat(stats.open()).isEqualTo(1);
+        assertThat(stats.overdue()).isZero();
+        // Task 2 becomes overdue once its due date has passed, without any write.
+        assertThat(statistics.snapshot(TODAY.plusDays(2), 1).overdue()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldListCreationsForEveryDayInTheWindow() {
+        statistics.onTaskChanged(TaskChangedEvent.created(
+                new TaskResponse(1L, "Old", null, null, false, TODAY.minusDays(2).atTime(23, 59), 0L)));
+        statistics.onTaskChanged(TaskChangedEvent.created(task(2L, false, null)));
+
+        assertThat(statistics.snapshot(TODAY, 3).createdPerDay())
+                .containsExactly(
+                        Map.entry(TODAY.minusDays(2), 1L),
+                        Map.entry(TODAY.minusDays(1), 0L),
+                        Map.entry(TODAY, 1L));
+    }
+
+    @Test
+    void shouldStayExactUnderConcurrentWriters() throws Exception {
+        int writers = 8;
+        int tasksPerWriter = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                long base = (long) w * tasksPerWriter;
+                futures.add(executor.submit(() -> {
+                    for (long id = base; id < base + tasksPerWriter; id++) {
+                        TaskResponse created = task(id, false, TODAY.minusDays(id % 5));
+                        statistics.onTaskChanged(TaskChangedEvent.created(created));
+                        TaskResponse current = created;
+                        if (id % 2 == 0) {
+                            current = task(id, true, created.dueDate());
+                            statistics.onTaskChanged(TaskChangedEvent.updated(created, current));
+                        }
+                        if (id % 3 == 0) {
+                            statistics.onTaskChanged(TaskChangedEvent.deleted(current));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        long ids = (long) writers * tasksPerWriter;
+        long remaining = 0;
+        long completed = 0;
+        long overdue = 0;
+        for (long id = 0; id < ids; id++) {
+            if (id % 3 != 0) {
+                remaining++;
+                if (id % 2 == 0) {
+                    completed++;
+                } else if (id % 5 != 0) {
+                    overdue++;
+                }
+            }
+        }
+        TaskStats stats = statistics.snapshot(TODAY, 1);
+        assertThat(stats.total()).isEqualTo(remaining);
+        assertThat(stats.completed()).isEqualTo(completed);
+        assertThat(stats.overdue()).isEqualTo(overdue);
+        assertThat(stats.createdPerDay()).containsEntry(TODAY, remaining);
+    }
+
+    @Test
+    void shouldCorrectDriftFromDatabase() {
+        statistics.onTaskChanged(TaskChangedEvent.created(task(1L, false, TODAY.minusDays(1))));
+        statistics.onTaskChanged(TaskChangedEvent.created(task(2L, false, TODAY.minusDays(1))));
+
+        given(taskRepository.countTasks())
+                .willReturn(new TaskCounts(1, 1, List.of(new DateCount(TODAY, 1)), List.of()));
+
+        assertThat(statistics.reconcile()).isTrue();
+
+        TaskStats stats = statistics.snapshot(TODAY, 1);
+        assertThat(stats.total()).isEqualTo(1);
+        assertThat(stats.completed()).isEqualTo(1);
+        assertThat(stats.overdue()).isZero();
+        assertThat(stats.createdPerDay()).containsEntry(TODAY, 1L);
+    }
+
+    @Test
+    void shouldRetryRecountThatRacesWithAWrite() {
+        AtomicInteger calls = new AtomicInteger();
+        given(taskRepository.countTasks()).willAnswer(invocation -> {
+            if (calls.getAndIncrement() == 0) {
+                statistics.onTaskChanged(TaskChangedEvent.created(task(9L, false, null)));
+            }
+            return new TaskCounts(5, 0, List.of(new DateCount(TODAY, 5)), List.of());
+        });
+
+        statistics.rebuild();
+
+        assertThat(calls).hasValue(2);
+        assertThat(statistics.snapshot(TODAY, 1).total()).isEqualTo(5);
+        assertThat(meterRegistry.counter("tasks.stats.reconcile.skipped").count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCorrectOnLastAttemptEvenIfWritesKeepRacing() {
+        given(taskRepository.countTasks()).willAnswer(invocation -> {
+            statistics.onTaskChanged(TaskChangedEvent.created(task(9L, false, null)));
+            return new TaskCounts(5, 0, List.of(new DateCount(TODAY, 5)), List.of());
+        });
+
+        statistics.rebuild();
+
+        // The write that raced with the last attempt is counted on top of the database's five.
+        assertThat(statistics.snapshot(TODAY, 1).total()).isEqualTo(6);
+        assertThat(meterRegistry.counter("tasks.stats.reconcile.skipped").count()).isEqualTo(2);
+    }
+
+    private static TaskResponse task(Long id, boolean completed, LocalDate dueDate) {
+        return new TaskResponse(id, "Task " + id, null, dueDate, completed,
+                LocalDateTime.of(TODAY, LocalTime.NOON), 0L);
+    }
+}
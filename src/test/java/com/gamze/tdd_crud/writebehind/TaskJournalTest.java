@@ -0,0 +1,118 @@
+package com.gamze.tdd_crud.writebehind;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.gamze.tdd_crud.dto.TaskResponse;
+
+public class TaskJournalTest {
+    private static final int SEGMENT_SIZE = 64 * 1024;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void shouldRecoverTasksOfUnclosedJournal() {
+        TaskJournal journal = new TaskJournal(directory, SEGMENT_SIZE);
+        assertThat(journal.recover(0)).isEmpty();
+        TaskResponse first = new TaskResponse(1L, "Groceries", "Milk, eggs – and bread", LocalDate.of(2025, 3, 10),
+                false, LocalDateTime.of(2025, 3, 1, 9, 30, 15, 123_456_000), 0L);
+        TaskResponse second = new TaskResponse(2L, "No details", null, null, true,
+                LocalDateTime.of(2025, 3, 1, 9, 31), 0L);
+        assertThat(journal.append(first)).isEqualTo(1);
+        assertThat(journal.append(second)).isEqualTo(2);
+        // Not closed or forced: the process crashed, but the mapped pages survive it.
+
+        TaskJournal restarted = new TaskJournal(directory, SEGMENT_SIZE);
+        assertThat(restarted.recover(0)).containsExactly(
+                new TaskJournal.Entry(1, first), new TaskJournal.Entry(2, second));
+        assertThat(restarted.append(first)).isEqualTo(3);
+    }
+
+    @Test
+    void shouldSkipRecordsUpToCheckpoint() {
+        TaskJournal journal = new TaskJournal(directory, SEGMENT_SIZE);
+        journal.recover(0);
+        for (long id = 1; id <= 3; id++) {
+            journal.append(task(id));
+        }
+
+        List<TaskJournal.Entry> entries = new TaskJournal(directory, SEGMENT_SIZE).recover(2);
+        assertThat(entries).extracting(TaskJournal.Entry::sequence).containsExactly(3L);
+    }
+
+    @Test
+    void shouldStopAtTornRecord() throws IOException {
+        TaskJournal journal = new TaskJournal(directory, SEGMENT_SIZE);
+        journal.recover(0);
+        journal.append(task(1));
+        journal.append(task(2));
+        journal.close();
+
+        // Corrupt the last byte of the second record, as if the crash hit while writing it.
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(header, 0);
+            int second = 16 + header.getInt(0);
+            header.clear();
+            channel.read(header, second);
+            long last = second + 16 + header.getInt(0) - 1;
+            channel.write(ByteBuffer.wrap(new byte[] { 0x7f }), last);
+        }
+
+        TaskJournal restarted = new TaskJournal(directory, SEGMENT_SIZE);
+        assertThat(restarted.recover(0)).extracting(TaskJournal.Entry::sequence).containsExactly(1L);
+    }
+
+    @Test
+    void shouldRollSegmentsAndReleaseStoredOnes() throws IOException {
+        TaskJournal journal = new TaskJournal(directory, 256);
+        journal.recover(0);
+        for (long id = 1; id <= 10; id++) {
+            journal.append(task(id));
+        }
+        assertThat(segments()).hasSizeGreaterThan(2);
+
+        journal.release(10);
+        assertThat(segments()).hasSize(1);
+        assertThat(new TaskJournal(directory, 256).recover(10)).isEmpty();
+    }
+
+    @Test
+    void shouldReplayAcrossSegments() throws IOException {
+        TaskJournal journal = new TaskJournal(directory, 256);
+        journal.recover(0);
+        for (long id = 1; id <= 10; id++) {
+            journal.append(task(id));
+        }
+        journal.release(4);
+
+        assertThat(new TaskJournal(directory, 256).recover(4))
+                .extracting(entry -> entry.task().id())
+                .containsExactly(5L, 6L, 7L, 8L, 9L, 10L);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static TaskResponse task(long id) {
+        return new TaskResponse(id, "Task " + id, null, null, false, LocalDateTime.of(2025, 3, 1, 12, 0), 0L);
+    }
+}